@@ -0,0 +1,23 @@
+CREATE TABLE "inventory_reservations" (
+	"id" uuid PRIMARY KEY DEFAULT gen_random_uuid() NOT NULL,
+	"product_id" uuid NOT NULL,
+	"cart_id" uuid NOT NULL,
+	"shard" integer,
+	"quantity" integer NOT NULL,
+	"expires_at" timestamp NOT NULL,
+	"created_at" timestamp DEFAULT now() NOT NULL
+);
+--> statement-breakpoint
+CREATE TABLE "product_stock_shards" (
+	"product_id" uuid NOT NULL,
+	"shard" integer NOT NULL,
+	"stock" integer DEFAULT 0 NOT NULL,
+	CONSTRAINT "product_stock_shards_product_id_shard_pk" PRIMARY KEY("product_id","shard")
+);
+--> statement-breakpoint
+ALTER TABLE "products" ADD COLUMN "stock" integer;--> statement-breakpoint
+ALTER TABLE "products" ADD COLUMN "stock_shards" integer DEFAULT 0 NOT NULL;--> statement-breakpoint
+ALTER TABLE "inventory_reservations" ADD CONSTRAINT "inventory_reservations_product_id_products_id_fk" FOREIGN KEY ("product_id") REFERENCES "public"."products"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+ALTER TABLE "product_stock_shards" ADD CONSTRAINT "product_stock_shards_product_id_products_id_fk" FOREIGN KEY ("product_id") REFERENCES "public"."products"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+CREATE INDEX "inventory_reservations_cart_id_idx" ON "inventory_reservations" USING btree ("cart_id");--> statement-breakpoint
+CREATE INDEX "inventory_reservations_expires_at_idx" ON "inventory_reservations" USING btree ("expires_at");
\ No newline at end of file
@@ -0,0 +1,5 @@
+UPDATE "carts" SET "updated_at" = coalesce("updated_at", "created_at", now()) WHERE "updated_at" IS NULL;--> statement-breakpoint
+ALTER TABLE "carts" ALTER COLUMN "created_at" SET DEFAULT now();--> statement-breakpoint
+ALTER TABLE "carts" ALTER COLUMN "updated_at" SET DEFAULT now();--> statement-breakpoint
+ALTER TABLE "carts" ALTER COLUMN "updated_at" SET NOT NULL;--> statement-breakpoint
+CREATE INDEX "carts_updated_at_idx" ON "carts" USING btree ("updated_at");
\ No newline at end of file
@@ -0,0 +1,15 @@
+CREATE TABLE "outbox_events" (
+	"id" bigserial PRIMARY KEY NOT NULL,
+	"aggregate_type" varchar(64) NOT NULL,
+	"aggregate_id" uuid NOT NULL,
+	"event_type" varchar(64) NOT NULL,
+	"payload" jsonb NOT NULL,
+	"created_at" timestamp DEFAULT now() NOT NULL,
+	"available_at" timestamp DEFAULT now() NOT NULL,
+	"attempts" integer DEFAULT 0 NOT NULL,
+	"last_error" varchar(1000),
+	"published_at" timestamp
+);
+--> statement-breakpoint
+CREATE INDEX "outbox_events_pending_idx" ON "outbox_events" USING btree ("id") WHERE "outbox_events"."published_at" is null;--> statement-breakpoint
+CREATE INDEX "outbox_events_published_at_idx" ON "outbox_events" USING btree ("published_at");
\ No newline at end of file
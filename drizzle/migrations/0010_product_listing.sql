@@ -0,0 +1,23 @@
+CREATE TABLE "product_listing" (
+	"product_id" uuid PRIMARY KEY NOT NULL,
+	"name" varchar(255) NOT NULL,
+	"description" varchar(255),
+	"price" integer NOT NULL,
+	"category_id" uuid NOT NULL,
+	"category_name" varchar(255) NOT NULL,
+	"popularity" double precision DEFAULT 0 NOT NULL,
+	"created_at" timestamp,
+	"updated_at" timestamp
+);
+--> statement-breakpoint
+ALTER TABLE "product_listing" ADD CONSTRAINT "product_listing_product_id_products_id_fk" FOREIGN KEY ("product_id") REFERENCES "public"."products"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+CREATE INDEX "product_listing_name_idx" ON "product_listing" USING btree ("name","product_id") INCLUDE ("description", "price", "category_id", "category_name", "popularity", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_description_idx" ON "product_listing" USING btree ("description","product_id") INCLUDE ("name", "price", "category_id", "category_name", "popularity", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_price_idx" ON "product_listing" USING btree ("price","product_id") INCLUDE ("name", "description", "category_id", "category_name", "popularity", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_created_at_idx" ON "product_listing" USING btree ("created_at","product_id") INCLUDE ("name", "description", "price", "category_id", "category_name", "popularity", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_updated_at_idx" ON "product_listing" USING btree ("updated_at","product_id") INCLUDE ("name", "description", "price", "category_id", "category_name", "popularity", "created_at");--> statement-breakpoint
+CREATE INDEX "product_listing_category_created_at_idx" ON "product_listing" USING btree ("category_id","created_at","product_id") INCLUDE ("name", "description", "price", "category_name", "popularity", "updated_at");--> statement-breakpoint
+INSERT INTO "product_listing" ("product_id", "name", "description", "price", "category_id", "category_name", "created_at", "updated_at")
+SELECT p."id", p."name", p."description", p."price", p."category_id", c."name", p."created_at", p."updated_at"
+FROM "products" p JOIN "categories" c ON c."id" = p."category_id";--> statement-breakpoint
+ANALYZE "product_listing";
\ No newline at end of file
@@ -0,0 +1,33 @@
+CREATE TABLE "price_history" (
+	"product_id" uuid NOT NULL,
+	"previous_price" integer,
+	"price" integer NOT NULL,
+	"changed_at" timestamp DEFAULT now() NOT NULL
+) PARTITION BY RANGE ("changed_at");
+--> statement-breakpoint
+CREATE TABLE "cart_activity" (
+	"cart_id" uuid NOT NULL,
+	"product_id" uuid,
+	"action" varchar(32) NOT NULL,
+	"quantity" integer,
+	"occurred_at" timestamp DEFAULT now() NOT NULL
+) PARTITION BY RANGE ("occurred_at");
+--> statement-breakpoint
+CREATE INDEX "price_history_product_id_changed_at_idx" ON "price_history" USING btree ("product_id","changed_at");--> statement-breakpoint
+CREATE INDEX "cart_activity_cart_id_occurred_at_idx" ON "cart_activity" USING btree ("cart_id","occurred_at");--> statement-breakpoint
+-- monthly partitions until PartitionMaintenance takes over at startup
+DO $$
+DECLARE
+  month date;
+  parent text;
+BEGIN
+  FOREACH parent IN ARRAY ARRAY['price_history', 'cart_activity'] LOOP
+    FOR i IN 0..2 LOOP
+      month := date_trunc('month', now())::date + make_interval(months => i);
+      EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        parent || '_p' || to_char(month, 'YYYY_MM'), parent, month, month + interval '1 month'
+      );
+    END LOOP;
+  END LOOP;
+END $$;
\ No newline at end of file
@@ -0,0 +1,10 @@
+CREATE TABLE "product_counters" (
+	"product_id" uuid PRIMARY KEY NOT NULL,
+	"views" bigint DEFAULT 0 NOT NULL,
+	"add_to_carts" bigint DEFAULT 0 NOT NULL,
+	"popularity" double precision DEFAULT 0 NOT NULL,
+	"updated_at" timestamp DEFAULT now() NOT NULL
+);
+--> statement-breakpoint
+ALTER TABLE "product_counters" ADD CONSTRAINT "product_counters_product_id_products_id_fk" FOREIGN KEY ("product_id") REFERENCES "public"."products"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+CREATE INDEX "product_listing_popularity_idx" ON "product_listing" USING btree ("popularity","product_id") INCLUDE ("name", "description", "price", "category_id", "category_name", "created_at", "updated_at");
\ No newline at end of file
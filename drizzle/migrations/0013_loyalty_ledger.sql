@@ -0,0 +1,35 @@
+CREATE TABLE "loyalty_balances" (
+	"user_id" uuid PRIMARY KEY NOT NULL,
+	"balance" bigint DEFAULT 0 NOT NULL,
+	"updated_at" timestamp DEFAULT now() NOT NULL,
+	CONSTRAINT "loyalty_balances_balance_check" CHECK ("loyalty_balances"."balance" >= 0)
+);
+--> statement-breakpoint
+CREATE TABLE "loyalty_snapshots" (
+	"user_id" uuid PRIMARY KEY NOT NULL,
+	"balance" bigint NOT NULL,
+	"last_transaction_id" bigint NOT NULL,
+	"taken_at" timestamp DEFAULT now() NOT NULL
+);
+--> statement-breakpoint
+CREATE TABLE "loyalty_transactions" (
+	"id" bigserial PRIMARY KEY NOT NULL,
+	"user_id" uuid NOT NULL,
+	"delta" integer NOT NULL,
+	"reason" varchar(64) NOT NULL,
+	"reference" varchar(128),
+	"created_at" timestamp DEFAULT now() NOT NULL
+);
+--> statement-breakpoint
+ALTER TABLE "loyalty_balances" ADD CONSTRAINT "loyalty_balances_user_id_users_id_fk" FOREIGN KEY ("user_id") REFERENCES "public"."users"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+ALTER TABLE "loyalty_snapshots" ADD CONSTRAINT "loyalty_snapshots_user_id_users_id_fk" FOREIGN KEY ("user_id") REFERENCES "public"."users"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+ALTER TABLE "loyalty_transactions" ADD CONSTRAINT "loyalty_transactions_user_id_users_id_fk" FOREIGN KEY ("user_id") REFERENCES "public"."users"("id") ON DELETE cascade ON UPDATE no action;--> statement-breakpoint
+CREATE INDEX "loyalty_transactions_user_id_id_idx" ON "loyalty_transactions" USING btree ("user_id","id");--> statement-breakpoint
+CREATE UNIQUE INDEX "loyalty_transactions_user_id_reference_idx" ON "loyalty_transactions" USING btree ("user_id","reference") WHERE "loyalty_transactions"."reference" is not null;--> statement-breakpoint
+-- carry the old profile counters over as opening transactions
+INSERT INTO "loyalty_transactions" ("user_id", "delta", "reason", "reference")
+SELECT "user_id", sum("loyalty_points"), 'opening-balance', 'profiles.loyalty_points'
+FROM "profiles" GROUP BY "user_id" HAVING sum("loyalty_points") > 0;--> statement-breakpoint
+INSERT INTO "loyalty_balances" ("user_id", "balance")
+SELECT "user_id", sum("delta") FROM "loyalty_transactions" GROUP BY "user_id";--> statement-breakpoint
+ALTER TABLE "profiles" DROP COLUMN "loyalty_points";
\ No newline at end of file
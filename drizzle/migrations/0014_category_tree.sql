@@ -0,0 +1,8 @@
+ALTER TABLE "categories" ADD COLUMN "parent_id" uuid;--> statement-breakpoint
+ALTER TABLE "categories" ADD COLUMN "path" text;--> statement-breakpoint
+-- every existing category becomes a root
+UPDATE "categories" SET "path" = '/' || "id" || '/';--> statement-breakpoint
+ALTER TABLE "categories" ALTER COLUMN "path" SET NOT NULL;--> statement-breakpoint
+ALTER TABLE "categories" ADD CONSTRAINT "categories_parent_id_categories_id_fk" FOREIGN KEY ("parent_id") REFERENCES "public"."categories"("id") ON DELETE restrict ON UPDATE no action;--> statement-breakpoint
+CREATE INDEX "categories_path_idx" ON "categories" USING btree ("path" text_pattern_ops);--> statement-breakpoint
+CREATE INDEX "categories_parent_id_idx" ON "categories" USING btree ("parent_id");
\ No newline at end of file
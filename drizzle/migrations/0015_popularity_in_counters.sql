@@ -0,0 +1,12 @@
+DROP INDEX "product_listing_popularity_idx";--> statement-breakpoint
+ALTER TABLE "product_listing" DROP COLUMN "popularity";--> statement-breakpoint
+CREATE INDEX "product_listing_name_idx" ON "product_listing" USING btree ("name","product_id") INCLUDE ("description", "price", "category_id", "category_name", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_description_idx" ON "product_listing" USING btree ("description","product_id") INCLUDE ("name", "price", "category_id", "category_name", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_price_idx" ON "product_listing" USING btree ("price","product_id") INCLUDE ("name", "description", "category_id", "category_name", "created_at", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_created_at_idx" ON "product_listing" USING btree ("created_at","product_id") INCLUDE ("name", "description", "price", "category_id", "category_name", "updated_at");--> statement-breakpoint
+CREATE INDEX "product_listing_updated_at_idx" ON "product_listing" USING btree ("updated_at","product_id") INCLUDE ("name", "description", "price", "category_id", "category_name", "created_at");--> statement-breakpoint
+CREATE INDEX "product_listing_category_created_at_idx" ON "product_listing" USING btree ("category_id","created_at","product_id") INCLUDE ("name", "description", "price", "category_name", "updated_at");--> statement-breakpoint
+INSERT INTO "product_counters" ("product_id")
+SELECT "id" FROM "products"
+ON CONFLICT ("product_id") DO NOTHING;--> statement-breakpoint
+CREATE INDEX "product_counters_popularity_idx" ON "product_counters" USING btree ("popularity","product_id");
\ No newline at end of file
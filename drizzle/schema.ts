@@ -1,11 +1,23 @@
 import {
+  type AnyPgColumn,
+  bigint,
+  bigserial,
+  check,
   date,
+  doublePrecision,
+  index,
   integer,
+  jsonb,
+  numeric,
   pgTable,
+  primaryKey,
+  text,
   timestamp,
+  uniqueIndex,
   uuid,
   varchar,
 } from "drizzle-orm/pg-core";
+import { sql } from "drizzle-orm";
 
 const dateProps = {
   createdAt: timestamp("created_at"),
@@ -36,7 +48,6 @@ export const profilesTable = pgTable("profiles", {
   bio: varchar({ length: 255 }),
   date_of_birth: date("date_of_birth"),
   phone_number: varchar({ length: 255 }),
-  loyalty_points: integer().default(0),
   userId: uuid("user_id")
     .notNull()
     .references(() => usersTable.id, { onDelete: "cascade" }),
@@ -60,11 +71,23 @@ export const userTagsTable = pgTable("user_tags", {
     .references(() => tagsTable.id, { onDelete: "cascade" }),
 });
 
-export const categoriesTable = pgTable("categories", {
-  id: uuid("id").defaultRandom().primaryKey(),
-  name: varchar({ length: 255 }).notNull(),
-  ...dateProps,
-});
+export const categoriesTable = pgTable(
+  "categories",
+  {
+    id: uuid("id").defaultRandom().primaryKey(),
+    name: varchar({ length: 255 }).notNull(),
+    parentId: uuid("parent_id").references((): AnyPgColumn => categoriesTable.id, {
+      onDelete: "restrict",
+    }),
+    // materialized path of ids from the root, "/<root>/<child>/"; a subtree is a prefix match
+    path: text().notNull(),
+    ...dateProps,
+  },
+  (table) => [
+    index("categories_path_idx").on(table.path.op("text_pattern_ops")),
+    index("categories_parent_id_idx").on(table.parentId),
+  ]
+);
 
 export const productsTable = pgTable("products", {
   id: uuid("id").defaultRandom().primaryKey(),
@@ -74,6 +97,10 @@ export const productsTable = pgTable("products", {
   categoryId: uuid("category_id")
     .notNull()
     .references(() => categoriesTable.id, { onDelete: "restrict" }),
+  // null means the product's stock is not tracked
+  stock: integer(),
+  // > 0 moves the stock of a hot product into product_stock_shards
+  stockShards: integer("stock_shards").notNull().default(0),
   ...dateProps,
 });
 
@@ -88,10 +115,16 @@ export const wishlistsTable = pgTable("wishlists", {
   ...dateProps,
 });
 
-export const cartTable = pgTable("carts", {
-  id: uuid("id").defaultRandom().primaryKey(),
-  ...dateProps,
-});
+export const cartTable = pgTable(
+  "carts",
+  {
+    id: uuid("id").defaultRandom().primaryKey(),
+    createdAt: timestamp("created_at").defaultNow(),
+    // last write to the cart or its items; idle carts are reaped by it
+    updatedAt: timestamp("updated_at").notNull().defaultNow(),
+  },
+  (table) => [index("carts_updated_at_idx").on(table.updatedAt)]
+);
 
 export const cartItemsTable = pgTable("cart_items", {
   id: uuid("id").defaultRandom().primaryKey(),
@@ -104,3 +137,217 @@ export const cartItemsTable = pgTable("cart_items", {
   quantity: integer().notNull().default(0),
   ...dateProps,
 });
+
+
+export const ordersTable = pgTable("orders", {
+  id: uuid("id").defaultRandom().primaryKey(),
+  // no FK: carts are cleared on checkout and may be reaped later
+  cartId: uuid("cart_id"),
+  status: varchar({ length: 32 }).notNull().default("PLACED"),
+  itemCount: integer("item_count").notNull(),
+  totalPrice: numeric("total_price", { precision: 12, scale: 2 }).notNull(),
+  ...dateProps,
+});
+
+export const orderItemsTable = pgTable(
+  "order_items",
+  {
+    id: uuid("id").defaultRandom().primaryKey(),
+    orderId: uuid("order_id")
+      .notNull()
+      .references(() => ordersTable.id, { onDelete: "cascade" }),
+    productId: uuid("product_id").references(() => productsTable.id, {
+      onDelete: "set null",
+    }),
+    productName: varchar("product_name", { length: 255 }).notNull(),
+    unitPrice: numeric("unit_price", { precision: 12, scale: 2 }).notNull(),
+    quantity: integer().notNull(),
+    lineTotal: numeric("line_total", { precision: 12, scale: 2 }).notNull(),
+    ...dateProps,
+  },
+  (table) => [index("order_items_order_id_idx").on(table.orderId)]
+);
+
+export const productStockShardsTable = pgTable(
+  "product_stock_shards",
+  {
+    productId: uuid("product_id")
+      .notNull()
+      .references(() => productsTable.id, { onDelete: "cascade" }),
+    shard: integer().notNull(),
+    stock: integer().notNull().default(0),
+  },
+  (table) => [primaryKey({ columns: [table.productId, table.shard] })]
+);
+
+export const inventoryReservationsTable = pgTable(
+  "inventory_reservations",
+  {
+    id: uuid("id").defaultRandom().primaryKey(),
+    productId: uuid("product_id")
+      .notNull()
+      .references(() => productsTable.id, { onDelete: "cascade" }),
+    // no FK: reservations outlive reaped carts until they expire
+    cartId: uuid("cart_id").notNull(),
+    shard: integer(),
+    quantity: integer().notNull(),
+    expiresAt: timestamp("expires_at").notNull(),
+    createdAt: timestamp("created_at").notNull().defaultNow(),
+  },
+  (table) => [
+    index("inventory_reservations_cart_id_idx").on(table.cartId),
+    index("inventory_reservations_expires_at_idx").on(table.expiresAt),
+  ]
+);
+
+export const outboxEventsTable = pgTable(
+  "outbox_events",
+  {
+    // insertion order is delivery order
+    id: bigserial("id", { mode: "number" }).primaryKey(),
+    aggregateType: varchar("aggregate_type", { length: 64 }).notNull(),
+    aggregateId: uuid("aggregate_id").notNull(),
+    eventType: varchar("event_type", { length: 64 }).notNull(),
+    payload: jsonb().notNull(),
+    createdAt: timestamp("created_at").notNull().defaultNow(),
+    availableAt: timestamp("available_at").notNull().defaultNow(),
+    attempts: integer().notNull().default(0),
+    lastError: varchar("last_error", { length: 1000 }),
+    publishedAt: timestamp("published_at"),
+  },
+  (table) => [
+    index("outbox_events_pending_idx")
+      .on(table.id)
+      .where(sql`${table.publishedAt} is null`),
+    index("outbox_events_published_at_idx").on(table.publishedAt),
+  ]
+);
+
+// Read model for the product list endpoints, written by ProductService in
+// the same transaction as the product. Each index also INCLUDEs the other
+// columns (0010_product_listing.sql, rebuilt in 0015_popularity_in_counters.sql)
+// so sorted pages are index-only scans; drizzle cannot express INCLUDE, keep
+// the SQL in sync by hand. Nothing that changes often lives here: updating
+// an indexed column would rule out HOT updates of the row.
+export const productListingTable = pgTable(
+  "product_listing",
+  {
+    productId: uuid("product_id")
+      .primaryKey()
+      .references(() => productsTable.id, { onDelete: "cascade" }),
+    name: varchar({ length: 255 }).notNull(),
+    description: varchar({ length: 255 }),
+    price: integer().notNull(),
+    categoryId: uuid("category_id").notNull(),
+    categoryName: varchar("category_name", { length: 255 }).notNull(),
+    ...dateProps,
+  },
+  (table) => [
+    index("product_listing_name_idx").on(table.name, table.productId),
+    index("product_listing_description_idx").on(table.description, table.productId),
+    index("product_listing_price_idx").on(table.price, table.productId),
+    index("product_listing_created_at_idx").on(table.createdAt, table.productId),
+    index("product_listing_updated_at_idx").on(table.updatedAt, table.productId),
+    index("product_listing_category_created_at_idx").on(
+      table.categoryId,
+      table.createdAt,
+      table.productId
+    ),
+  ]
+);
+
+// price_history and cart_activity are PARTITION BY RANGE on their
+// timestamp, one partition per month (0011_partitioned_history.sql).
+// Partitions are created ahead and dropped after retention by
+// PartitionMaintenance, not by migrations.
+export const priceHistoryTable = pgTable(
+  "price_history",
+  {
+    productId: uuid("product_id").notNull(),
+    previousPrice: integer("previous_price"),
+    price: integer().notNull(),
+    changedAt: timestamp("changed_at").notNull().defaultNow(),
+  },
+  (table) => [
+    index("price_history_product_id_changed_at_idx").on(table.productId, table.changedAt),
+  ]
+);
+
+export const cartActivityTable = pgTable(
+  "cart_activity",
+  {
+    cartId: uuid("cart_id").notNull(),
+    productId: uuid("product_id"),
+    action: varchar({ length: 32 }).notNull(),
+    quantity: integer(),
+    occurredAt: timestamp("occurred_at").notNull().defaultNow(),
+  },
+  (table) => [
+    index("cart_activity_cart_id_occurred_at_idx").on(table.cartId, table.occurredAt),
+  ]
+);
+
+// Totals flushed in batches by PopularityCounters. popularity is the
+// decayed score in log2 space; ?sortBy=popularity walks its index and joins
+// product_listing. Every product has a row, created with the product.
+export const productCountersTable = pgTable(
+  "product_counters",
+  {
+    productId: uuid("product_id")
+      .primaryKey()
+      .references(() => productsTable.id, { onDelete: "cascade" }),
+    views: bigint({ mode: "number" }).notNull().default(0),
+    addToCarts: bigint("add_to_carts", { mode: "number" }).notNull().default(0),
+    popularity: doublePrecision().notNull().default(0),
+    updatedAt: timestamp("updated_at").notNull().defaultNow(),
+  },
+  (table) => [
+    index("product_counters_popularity_idx").on(table.popularity, table.productId),
+  ]
+);
+
+// Loyalty points: loyalty_transactions is the append-only ledger,
+// loyalty_balances is kept in step by SQL increments in the same
+// transaction, and loyalty_snapshots is written by LoyaltySnapshotter to
+// reconcile the two.
+export const loyaltyTransactionsTable = pgTable(
+  "loyalty_transactions",
+  {
+    id: bigserial("id", { mode: "number" }).primaryKey(),
+    userId: uuid("user_id")
+      .notNull()
+      .references(() => usersTable.id, { onDelete: "cascade" }),
+    delta: integer().notNull(),
+    reason: varchar({ length: 64 }).notNull(),
+    // idempotency key, e.g. order:<id>
+    reference: varchar({ length: 128 }),
+    createdAt: timestamp("created_at").notNull().defaultNow(),
+  },
+  (table) => [
+    index("loyalty_transactions_user_id_id_idx").on(table.userId, table.id),
+    uniqueIndex("loyalty_transactions_user_id_reference_idx")
+      .on(table.userId, table.reference)
+      .where(sql`${table.reference} is not null`),
+  ]
+);
+
+export const loyaltyBalancesTable = pgTable(
+  "loyalty_balances",
+  {
+    userId: uuid("user_id")
+      .primaryKey()
+      .references(() => usersTable.id, { onDelete: "cascade" }),
+    balance: bigint({ mode: "number" }).notNull().default(0),
+    updatedAt: timestamp("updated_at").notNull().defaultNow(),
+  },
+  (table) => [check("loyalty_balances_balance_check", sql`${table.balance} >= 0`)]
+);
+
+export const loyaltySnapshotsTable = pgTable("loyalty_snapshots", {
+  userId: uuid("user_id")
+    .primaryKey()
+    .references(() => usersTable.id, { onDelete: "cascade" }),
+  balance: bigint({ mode: "number" }).notNull(),
+  lastTransactionId: bigint("last_transaction_id", { mode: "number" }).notNull(),
+  takenAt: timestamp("taken_at").notNull().defaultNow(),
+});
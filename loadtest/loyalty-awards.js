@@ -0,0 +1,43 @@
+// Thousands of concurrent awards to one hot user; the final balance must
+// equal the starting balance plus every award that returned 200.
+// k6 run -e BASE_URL=http://localhost:8080 -e USER_ID=<uuid> loadtest/loyalty-awards.js
+import http from "k6/http";
+import { check } from "k6";
+import { Counter } from "k6/metrics";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8080";
+const USER_ID = __ENV.USER_ID;
+const JSON_HEADERS = { headers: { "Content-Type": "application/json" } };
+const awarded = new Counter("points_awarded");
+
+export const options = {
+  scenarios: {
+    hot_user_awards: {
+      executor: "shared-iterations",
+      vus: 500,
+      iterations: 5000,
+      maxDuration: "2m",
+    },
+  },
+};
+
+export function setup() {
+  return { start: http.get(`${BASE_URL}/users/${USER_ID}/loyalty`).json("balance") };
+}
+
+export default function () {
+  const res = http.post(
+    `${BASE_URL}/users/${USER_ID}/loyalty/awards`,
+    // unique reference per iteration, so every award is applied exactly once
+    JSON.stringify({ points: 1, reason: "load-test", reference: `k6-${__VU}-${__ITER}-${Date.now()}` }),
+    JSON_HEADERS
+  );
+  if (check(res, { "award applied": (r) => r.status === 200 && r.json("applied") })) {
+    awarded.add(1);
+  }
+}
+
+export function teardown(data) {
+  const end = http.get(`${BASE_URL}/users/${USER_ID}/loyalty`).json("balance");
+  console.log(`balance ${data.start} -> ${end}; compare with the points_awarded counter`);
+}
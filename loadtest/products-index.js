@@ -0,0 +1,29 @@
+// k6 run -e BASE_URL=http://localhost:8080 loadtest/products-index.js   (MVC)
+// k6 run -e BASE_URL=http://localhost:8081 loadtest/products-index.js   (reactive)
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8080";
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: "ramping-vus",
+      startVUs: 0,
+      stages: [
+        { duration: "30s", target: 200 },
+        { duration: "1m", target: 1000 },
+        { duration: "1m", target: 2000 },
+        { duration: "30s", target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ["rate<0.01"],
+  },
+};
+
+export default function () {
+  const res = http.get(`${BASE_URL}/products/?limit=20&sortBy=price&sort=ASC`);
+  check(res, { "status is 200": (r) => r.status === 200 });
+}
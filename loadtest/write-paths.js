@@ -0,0 +1,66 @@
+// Write paths used to compare the prod datasource profile with the defaults.
+// k6 run -e BASE_URL=http://localhost:8080 -e CATEGORY_ID=<uuid> loadtest/write-paths.js
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8080";
+const CATEGORY_ID = __ENV.CATEGORY_ID;
+const JSON_HEADERS = { headers: { "Content-Type": "application/json" } };
+
+export const options = {
+  scenarios: {
+    create_products: {
+      executor: "constant-arrival-rate",
+      exec: "createProduct",
+      rate: 200,
+      timeUnit: "1s",
+      duration: "2m",
+      preAllocatedVUs: 100,
+    },
+    add_cart_items: {
+      executor: "constant-arrival-rate",
+      exec: "addCartItems",
+      rate: 100,
+      timeUnit: "1s",
+      duration: "2m",
+      preAllocatedVUs: 100,
+    },
+  },
+};
+
+export function setup() {
+  const products = [];
+  for (let i = 0; i < 20; i++) {
+    const res = http.post(
+      `${BASE_URL}/products/`,
+      JSON.stringify({ name: `bench-${i}`, price: 10 + i, categoryId: CATEGORY_ID }),
+      JSON_HEADERS
+    );
+    products.push(res.json("id"));
+    http.put(
+      `${BASE_URL}/inventory/${res.json("id")}`,
+      JSON.stringify({ stock: 1000000, shards: 8 }),
+      JSON_HEADERS
+    );
+  }
+  return { products };
+}
+
+export function createProduct() {
+  const res = http.post(
+    `${BASE_URL}/products/`,
+    JSON.stringify({ name: `bench-${__VU}-${__ITER}`, price: 9.99, categoryId: CATEGORY_ID }),
+    JSON_HEADERS
+  );
+  check(res, { "created": (r) => r.status === 201 });
+}
+
+export function addCartItems(data) {
+  const cart = http.post(`${BASE_URL}/carts`).json("id");
+  for (let i = 0; i < 5; i++) {
+    const productId = data.products[(__ITER + i) % data.products.length];
+    const res = http.post(`${BASE_URL}/carts/${cart}/items`, JSON.stringify({ productId }), JSON_HEADERS);
+    check(res, { "item added": (r) => r.status === 201 });
+  }
+  http.post(`${BASE_URL}/orders`, JSON.stringify({ cartId: cart }), JSON_HEADERS);
+}
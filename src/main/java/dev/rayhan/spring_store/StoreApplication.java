@@ -3,18 +3,15 @@ package dev.rayhan.spring_store;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class StoreApplication {
     public static void main(String[] args) {
         SpringApplication.run(StoreApplication.class, args);
 //        ApplicationContext context = SpringApplication.run(StoreApplication.class, args);
 
-        
-//        UnifiedJedis jedis = new UnifiedJedis("redis://localhost:6379");
-//        jedis.set("name", "rayhan");
-//        jedis.close();
-
 //        --- User
 //        var userRepository = context.getBean(UserRepository.class);
 //        var userService = context.getBean(UserService.class);
@@ -0,0 +1,16 @@
+package dev.rayhan.spring_store.apis.cart;
+
+/**
+ * Outbox event names for carts. Item events carry {@code productId} and
+ * the resulting {@code quantity}.
+ */
+public final class CartEvents {
+  public static final String AGGREGATE = "cart";
+  public static final String CREATED = "CartCreated";
+  public static final String ITEM_ADDED = "CartItemAdded";
+  public static final String ITEM_REMOVED = "CartItemRemoved";
+  public static final String CLEARED = "CartCleared";
+
+  private CartEvents() {
+  }
+}
@@ -1,9 +1,33 @@
 package dev.rayhan.spring_store.apis.cart.repositories;
 
+import dev.rayhan.spring_store.apis.cart.dtos.CartTotals;
+import dev.rayhan.spring_store.apis.cart.dtos.CheckoutLine;
 import dev.rayhan.spring_store.apis.cart.entities.CartItem;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CartItemRepository extends CrudRepository<CartItem, UUID> {
-}
\ No newline at end of file
+  @Query("""
+    select new dev.rayhan.spring_store.apis.cart.dtos.CheckoutLine(p.id, p.name, p.price, ci.quantity, p.stockShards)
+    from CartItem ci join ci.product p
+    where ci.cart.id = :cartId
+    """)
+  List<CheckoutLine> findCheckoutLines(@Param("cartId") UUID cartId);
+
+  @Query("""
+    select new dev.rayhan.spring_store.apis.cart.dtos.CartTotals(
+      coalesce(sum(ci.quantity * p.price), 0.0), coalesce(sum(ci.quantity), 0L))
+    from CartItem ci join ci.product p
+    where ci.cart.id = :cartId
+    """)
+  CartTotals findTotals(@Param("cartId") UUID cartId);
+
+  @Modifying
+  @Query("delete from CartItem ci where ci.cart.id = :cartId")
+  int deleteAllByCartId(@Param("cartId") UUID cartId);
+}
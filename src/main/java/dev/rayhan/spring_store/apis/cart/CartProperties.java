@@ -0,0 +1,16 @@
+package dev.rayhan.spring_store.apis.cart;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.cart")
+public class CartProperties {
+  // carts not written for this long are deleted
+  private Duration idleTtl = Duration.ofDays(7);
+  private int reaperBatchSize = 1000;
+  // gives vacuum and replicas room between batches
+  private Duration reaperBatchPause = Duration.ofMillis(100);
+}
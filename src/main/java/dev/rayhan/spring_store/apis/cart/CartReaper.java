@@ -0,0 +1,66 @@
+package dev.rayhan.spring_store.apis.cart;
+
+import dev.rayhan.spring_store.apis.cart.repositories.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Deletes carts that have been idle longer than {@code store.cart.idle-ttl}.
+ * Every batch is its own short transaction, so row locks are held for one
+ * batch only and a backlog is worked off over several batches.
+ */
+@Slf4j
+@Component
+class CartReaper {
+  private final CartRepository cartRepository;
+  private final CartProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Counter reaped;
+  private final Timer batchTimer;
+
+  CartReaper(
+    CartRepository cartRepository,
+    CartProperties properties,
+    TransactionTemplate transactionTemplate,
+    MeterRegistry meterRegistry
+  ) {
+    this.cartRepository = cartRepository;
+    this.properties = properties;
+    this.transactionTemplate = transactionTemplate;
+    this.reaped = Counter.builder("store.cart.reaper.deleted").register(meterRegistry);
+    this.batchTimer = Timer.builder("store.cart.reaper.batch").register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${store.cart.reaper-interval:10m}")
+  public void reapIdleCarts() throws InterruptedException {
+    // fixed per run so carts going idle during the run wait for the next one
+    var cutoff = Instant.now().minus(properties.getIdleTtl());
+    var batchSize = properties.getReaperBatchSize();
+    long total = 0;
+
+    while (true) {
+      Integer batch = batchTimer.record(() ->
+        transactionTemplate.execute(status -> cartRepository.deleteIdleBatch(cutoff, batchSize)));
+      if (batch == null || batch == 0) {
+        break;
+      }
+      reaped.increment(batch);
+      total += batch;
+      if (batch < batchSize) {
+        break;
+      }
+      Thread.sleep(properties.getReaperBatchPause());
+    }
+
+    if (total > 0) {
+      log.info("Reaped {} carts idle since before {}", total, cutoff);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package dev.rayhan.spring_store.apis.cart;
+
+import dev.rayhan.spring_store.apis.cart.dtos.CartDto;
+import dev.rayhan.spring_store.apis.cart.dtos.CartItemDto;
+import dev.rayhan.spring_store.apis.cart.entities.Cart;
+import dev.rayhan.spring_store.apis.cart.entities.CartItem;
+import dev.rayhan.spring_store.apis.cart.mappers.CartMapper;
+import dev.rayhan.spring_store.apis.cart.repositories.CartActivityRepository;
+import dev.rayhan.spring_store.apis.cart.repositories.CartRepository;
+import dev.rayhan.spring_store.apis.inventory.InventoryService;
+import dev.rayhan.spring_store.apis.product.repositories.ProductRepository;
+import dev.rayhan.spring_store.common.cache.CacheRegions;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import dev.rayhan.spring_store.common.outbox.OutboxPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+class CartService {
+  private final CartMapper mapper;
+  private final CartRepository cartRepository;
+  private final CartActivityRepository cartActivityRepository;
+  private final ProductRepository productRepository;
+  private final InventoryService inventoryService;
+  private final OutboxPublisher outboxPublisher;
+  private final TieredCache cache;
+  private final TransactionTemplate readOnlyTransaction;
+
+  CartService(
+    CartMapper mapper,
+    CartRepository cartRepository,
+    CartActivityRepository cartActivityRepository,
+    ProductRepository productRepository,
+    InventoryService inventoryService,
+    OutboxPublisher outboxPublisher,
+    TieredCache cache,
+    TransactionTemplate transactionTemplate
+  ) {
+    this.mapper = mapper;
+    this.cartRepository = cartRepository;
+    this.cartActivityRepository = cartActivityRepository;
+    this.productRepository = productRepository;
+    this.inventoryService = inventoryService;
+    this.outboxPublisher = outboxPublisher;
+    this.cache = cache;
+    this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  @Transactional
+  public CartDto createCart() {
+    var cart = cartRepository.save(Cart.builder().build());
+    outboxPublisher.publish(CartEvents.AGGREGATE, cart.getId(), CartEvents.CREATED, Map.of());
+    cartActivityRepository.record(cart.getId(), null, CartEvents.CREATED, null);
+    return mapper.toDto(cart);
+  }
+
+  // a cache hit needs no connection, so only the load opens a transaction
+  public CartDto getCart(UUID cartId) {
+    return cache.get(CacheRegions.CART, cartId.toString(), cache.typeOf(CartDto.class), () ->
+      readOnlyTransaction.execute(status -> mapper.toDto(findCart(cartId))));
+  }
+
+  @Transactional
+  public CartItemDto addItem(UUID cartId, UUID productId) {
+    var product = productRepository.findById(productId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    var cart = findCart(cartId);
+
+    // fails with 409 before the cart is touched when the product is sold out
+    inventoryService.reserve(product.getId(), product.getStockShards(), cart.getId(), 1);
+
+    var cartItem = cart.getItemByProductId(product.getId());
+    if (cartItem != null) {
+      cartItem.setQuantity(cartItem.getQuantity() + 1);
+    } else {
+      cartItem = CartItem.builder().product(product).quantity(1).build();
+    }
+    cart.addItemToCart(cartItem);
+    cartRepository.save(cart);
+    outboxPublisher.publish(CartEvents.AGGREGATE, cartId, CartEvents.ITEM_ADDED,
+      Map.of("productId", productId, "quantity", cartItem.getQuantity()));
+    cartActivityRepository.record(cartId, productId, CartEvents.ITEM_ADDED, cartItem.getQuantity());
+    cache.evictAfterCommit(CacheRegions.CART, cartId.toString());
+
+    return mapper.toDto(cartItem);
+  }
+
+  @Transactional
+  public void removeItem(UUID cartId, UUID productId) {
+    var cart = findCart(cartId);
+    if (cart.getItemByProductId(productId) == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart item not found");
+    }
+
+    cart.removeItemFromCartByProductId(productId);
+    cartRepository.save(cart);
+    inventoryService.release(cartId, productId);
+    outboxPublisher.publish(CartEvents.AGGREGATE, cartId, CartEvents.ITEM_REMOVED,
+      Map.of("productId", productId, "quantity", 0));
+    cartActivityRepository.record(cartId, productId, CartEvents.ITEM_REMOVED, 0);
+    cache.evictAfterCommit(CacheRegions.CART, cartId.toString());
+  }
+
+  @Transactional
+  public void clearCart(UUID cartId) {
+    var cart = findCart(cartId);
+    cart.clearCart();
+    cartRepository.save(cart);
+    inventoryService.releaseAll(cartId);
+    outboxPublisher.publish(CartEvents.AGGREGATE, cartId, CartEvents.CLEARED, Map.of());
+    cartActivityRepository.record(cartId, null, CartEvents.CLEARED, null);
+    cache.evictAfterCommit(CacheRegions.CART, cartId.toString());
+  }
+
+  private Cart findCart(UUID cartId) {
+    return cartRepository.findById(cartId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart not found"));
+  }
+}
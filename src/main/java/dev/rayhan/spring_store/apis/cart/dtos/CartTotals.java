@@ -0,0 +1,4 @@
+package dev.rayhan.spring_store.apis.cart.dtos;
+
+public record CartTotals(Double totalPrice, Long itemCount) {
+}
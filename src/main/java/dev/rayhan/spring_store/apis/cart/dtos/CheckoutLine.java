@@ -0,0 +1,6 @@
+package dev.rayhan.spring_store.apis.cart.dtos;
+
+import java.util.UUID;
+
+public record CheckoutLine(UUID productId, String productName, Double unitPrice, Integer quantity, Integer stockShards) {
+}
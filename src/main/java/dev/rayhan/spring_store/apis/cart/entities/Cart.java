@@ -29,12 +29,24 @@ public class Cart {
   @Column(name = "created_at")
   private Instant createdAt;
 
-  @Column(name = "updated_at")
+  @Column(name = "updated_at", nullable = false)
   private Instant updatedAt;
 
+  @PrePersist
+  public void initTimeStamp() {
+    createdAt = Instant.now();
+    updatedAt = createdAt;
+  }
+
+  // item changes do not dirty the cart row itself, so every mutator touches it
+  public void touch() {
+    updatedAt = Instant.now();
+  }
+
   public void addItemToCart(CartItem item) {
     items.add(item);
     item.setCart(this);
+    touch();
   }
 
   public CartItem getItemByProductId(UUID productId) {
@@ -45,6 +57,7 @@ public class Cart {
     var item = getItemByProductId(productId);
     items.remove(item);
     item.setCart(null);
+    touch();
   }
 
   public Double getTotalPrice() {
@@ -53,5 +66,6 @@ public class Cart {
 
   public void clearCart() {
     items.clear();
+    touch();
   }
-}
\ No newline at end of file
+}
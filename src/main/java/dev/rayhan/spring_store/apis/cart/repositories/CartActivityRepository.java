@@ -0,0 +1,29 @@
+package dev.rayhan.spring_store.apis.cart.repositories;
+
+import dev.rayhan.spring_store.apis.cart.entities.Cart;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+/**
+ * Append-only log in {@code cart_activity}, range partitioned by month.
+ * No FK to carts: the log outlives reaped carts until its partition is
+ * dropped.
+ */
+public interface CartActivityRepository extends Repository<Cart, UUID> {
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    INSERT INTO cart_activity (cart_id, product_id, action, quantity, occurred_at)
+    VALUES (:cartId, :productId, :action, :quantity, now())
+    """)
+  void record(
+    @Param("cartId") UUID cartId,
+    @Param("productId") UUID productId,
+    @Param("action") String action,
+    @Param("quantity") Integer quantity
+  );
+}
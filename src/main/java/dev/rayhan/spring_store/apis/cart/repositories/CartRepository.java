@@ -1,9 +1,36 @@
 package dev.rayhan.spring_store.apis.cart.repositories;
 
 import dev.rayhan.spring_store.apis.cart.entities.Cart;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CartRepository extends CrudRepository<Cart, UUID> {
-}
\ No newline at end of file
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select c from Cart c where c.id = :id")
+  Optional<Cart> findByIdForUpdate(@Param("id") UUID id);
+
+  /**
+   * Deletes at most {@code batchSize} carts not written since {@code cutoff},
+   * oldest first. Carts locked by a running request are skipped, and their
+   * items go with them through the {@code ON DELETE CASCADE} foreign key.
+   */
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    DELETE FROM carts WHERE id IN (
+      SELECT id FROM carts
+      WHERE updated_at < :cutoff
+      ORDER BY updated_at
+      LIMIT :batchSize
+      FOR UPDATE SKIP LOCKED
+    )
+    """)
+  int deleteIdleBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,49 @@
+package dev.rayhan.spring_store.apis.category;
+
+import dev.rayhan.spring_store.apis.category.dtos.CategoryDto;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryMenuDto;
+import dev.rayhan.spring_store.apis.category.dtos.CreateCategoryPayload;
+import dev.rayhan.spring_store.apis.category.dtos.UpdateCategoryPayload;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/categories")
+@AllArgsConstructor
+@Tag(name = "Categories", description = "Category tree")
+public class CategoryController {
+  private final CategoryService categoryService;
+
+  @GetMapping("/")
+  public ResponseEntity<List<CategoryMenuDto>> index() {
+    return ResponseEntity.ok(categoryService.getMenu());
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<CategoryDto> show(@PathVariable UUID id) {
+    return ResponseEntity.ok(categoryService.getCategory(id));
+  }
+
+  @PostMapping("/")
+  public ResponseEntity<CategoryDto> store(@Valid @RequestBody CreateCategoryPayload payload) {
+    return ResponseEntity.status(HttpStatus.CREATED).body(categoryService.createCategory(payload));
+  }
+
+  @PatchMapping("/{id}")
+  public ResponseEntity<CategoryDto> update(@PathVariable UUID id, @Valid @RequestBody UpdateCategoryPayload payload) {
+    return ResponseEntity.ok(categoryService.updateCategory(id, payload));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> destroy(@PathVariable UUID id) {
+    categoryService.deleteCategory(id);
+    return ResponseEntity.noContent().build();
+  }
+}
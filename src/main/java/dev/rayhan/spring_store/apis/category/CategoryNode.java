@@ -0,0 +1,6 @@
+package dev.rayhan.spring_store.apis.category;
+
+import java.util.UUID;
+
+public record CategoryNode(UUID id, String name, UUID parentId, String path) {
+}
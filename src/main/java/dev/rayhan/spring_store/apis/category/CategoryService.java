@@ -0,0 +1,165 @@
+package dev.rayhan.spring_store.apis.category;
+
+import dev.rayhan.spring_store.apis.category.dtos.CategoryDto;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryMenuDto;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryRef;
+import dev.rayhan.spring_store.apis.category.dtos.CreateCategoryPayload;
+import dev.rayhan.spring_store.apis.category.dtos.UpdateCategoryPayload;
+import dev.rayhan.spring_store.apis.product.entities.Category;
+import dev.rayhan.spring_store.apis.product.repositories.CategoryRepository;
+import dev.rayhan.spring_store.apis.product.repositories.ProductListingRepository;
+import dev.rayhan.spring_store.common.cache.CacheRegions;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Categories form a tree through {@code parent_id}, and every row also
+ * stores its materialized {@code path} ("/root/.../self/") so a subtree is
+ * one {@code LIKE 'prefix%'} range on {@code categories_path_idx} instead
+ * of a recursive query. Reads go through the cached {@link CategoryTree};
+ * writes take a transaction-scoped advisory lock so concurrent moves
+ * cannot interleave their path rewrites.
+ */
+@Service
+@AllArgsConstructor
+public class CategoryService {
+  private static final String TREE_KEY = "all";
+
+  private final CategoryRepository categoryRepository;
+  private final ProductListingRepository productListingRepository;
+  private final TieredCache cache;
+  private final EntityManager entityManager;
+
+  public CategoryTree tree() {
+    return cache.get(CacheRegions.CATEGORY_TREE, TREE_KEY, cache.typeOf(CategoryTree.class), () ->
+      new CategoryTree(categoryRepository.findAllNodes()));
+  }
+
+  List<CategoryMenuDto> getMenu() {
+    var tree = tree();
+    return tree.roots().stream().map(root -> toMenu(tree, root)).toList();
+  }
+
+  CategoryDto getCategory(UUID id) {
+    var tree = tree();
+    var node = tree.find(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+    return toDto(node.id(), node.name(), node.parentId(), tree.breadcrumb(node.parentId()), tree.children(id));
+  }
+
+  @Transactional
+  CategoryDto createCategory(CreateCategoryPayload payload) {
+    categoryRepository.lockTree();
+    var parent = payload.getParentId() != null ? findCategory(payload.getParentId(), HttpStatus.BAD_REQUEST) : null;
+
+    // the id is assigned here so the path is complete in the single INSERT
+    var id = UUID.randomUUID();
+    var category = Category.builder()
+      .id(id)
+      .name(payload.getName())
+      .parentId(payload.getParentId())
+      .path(pathUnder(parent, id))
+      .build();
+    // persist, not save: save() would merge an entity with an id, costing a SELECT first
+    entityManager.persist(category);
+
+    cache.invalidateAfterCommit(CacheRegions.CATEGORY_TREE);
+    return toDto(category.getId(), category.getName(), category.getParentId(), ancestorsOf(parent), List.of());
+  }
+
+  @Transactional
+  CategoryDto updateCategory(UUID id, UpdateCategoryPayload payload) {
+    categoryRepository.lockTree();
+    var category = findCategory(id, HttpStatus.NOT_FOUND);
+
+    if (payload.getName() != null && !payload.getName().equals(category.getName())) {
+      category.setName(payload.getName());
+      productListingRepository.renameCategory(id, payload.getName());
+      // cached product DTOs and list pages carry the category name
+      cache.invalidateAfterCommit(CacheRegions.PRODUCT);
+      cache.invalidateAfterCommit(CacheRegions.PRODUCT_LIST);
+    }
+
+    Category parent = null;
+    if (payload.isRoot() || payload.getParentId() != null) {
+      parent = payload.isRoot() ? null : findCategory(payload.getParentId(), HttpStatus.BAD_REQUEST);
+      if (parent != null && parent.getPath().startsWith(category.getPath())) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A category cannot be moved under itself or its descendants");
+      }
+      if (!Objects.equals(category.getParentId(), payload.isRoot() ? null : parent.getId())) {
+        move(category, parent);
+      }
+    } else if (category.getParentId() != null) {
+      parent = findCategory(category.getParentId(), HttpStatus.NOT_FOUND);
+    }
+
+    cache.invalidateAfterCommit(CacheRegions.CATEGORY_TREE);
+    return toDto(category.getId(), category.getName(), category.getParentId(), ancestorsOf(parent), tree().children(id));
+  }
+
+  @Transactional
+  void deleteCategory(UUID id) {
+    categoryRepository.lockTree();
+    var category = findCategory(id, HttpStatus.NOT_FOUND);
+    if (categoryRepository.existsByParentId(id)) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Category has subcategories");
+    }
+    if (productListingRepository.existsByCategoryId(id)) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Category has products");
+    }
+    categoryRepository.delete(category);
+    cache.invalidateAfterCommit(CacheRegions.CATEGORY_TREE);
+  }
+
+  private void move(Category category, Category parent) {
+    var oldPath = category.getPath();
+    var newPath = pathUnder(parent, category.getId());
+    categoryRepository.rewriteDescendantPaths(oldPath, newPath);
+    category.setParentId(parent != null ? parent.getId() : null);
+    category.setPath(newPath);
+    // cached subtree list pages were resolved against the old paths
+    cache.invalidateAfterCommit(CacheRegions.PRODUCT_LIST);
+  }
+
+  private Category findCategory(UUID id, HttpStatus status) {
+    return categoryRepository.findById(id).orElseThrow(() -> new ResponseStatusException(status, "Category not found"));
+  }
+
+  private static String pathUnder(Category parent, UUID id) {
+    return (parent != null ? parent.getPath() : "/") + id + "/";
+  }
+
+  // read from the rows, not the cached tree, which may not have the latest writes yet
+  private List<CategoryNode> ancestorsOf(Category parent) {
+    if (parent == null) {
+      return List.of();
+    }
+    var ids = Arrays.stream(parent.getPath().split("/")).filter(segment -> !segment.isEmpty()).map(UUID::fromString).toList();
+    var names = new HashMap<UUID, String>();
+    categoryRepository.findAllById(ids).forEach(category -> names.put(category.getId(), category.getName()));
+    names.put(parent.getId(), parent.getName());
+    return ids.stream().map(id -> new CategoryNode(id, names.get(id), null, null)).toList();
+  }
+
+  private static CategoryDto toDto(UUID id, String name, UUID parentId, List<CategoryNode> ancestors, List<CategoryNode> children) {
+    var breadcrumb = new ArrayList<CategoryRef>(ancestors.size() + 1);
+    ancestors.forEach(node -> breadcrumb.add(new CategoryRef(node.id(), node.name())));
+    breadcrumb.add(new CategoryRef(id, name));
+    return new CategoryDto(id, name, parentId, breadcrumb, children.stream().map(node -> new CategoryRef(node.id(), node.name())).toList());
+  }
+
+  private static CategoryMenuDto toMenu(CategoryTree tree, CategoryNode node) {
+    return new CategoryMenuDto(node.id(), node.name(), tree.children(node.id()).stream().map(child -> toMenu(tree, child)).toList());
+  }
+}
@@ -0,0 +1,78 @@
+package dev.rayhan.spring_store.apis.category;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of every category, loaded with one query and cached
+ * in {@code CacheRegions.CATEGORY_TREE}. Menu, children and breadcrumb
+ * lookups are map walks over this snapshot, never queries. Only
+ * {@code nodes} is serialized; the indexes are rebuilt when a node reads
+ * it from the shared cache tier.
+ */
+public final class CategoryTree {
+  private static final Comparator<CategoryNode> BY_NAME = Comparator.comparing(CategoryNode::name, String.CASE_INSENSITIVE_ORDER);
+
+  private final List<CategoryNode> nodes;
+  private final Map<UUID, CategoryNode> byId = new HashMap<>();
+  private final Map<UUID, List<CategoryNode>> childrenById = new HashMap<>();
+  private final List<CategoryNode> roots;
+
+  @JsonCreator
+  public CategoryTree(@JsonProperty("nodes") List<CategoryNode> nodes) {
+    this.nodes = List.copyOf(nodes);
+    var roots = new ArrayList<CategoryNode>();
+    var children = new HashMap<UUID, List<CategoryNode>>();
+    for (var node : this.nodes) {
+      byId.put(node.id(), node);
+      if (node.parentId() == null) {
+        roots.add(node);
+      } else {
+        children.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node);
+      }
+    }
+    roots.sort(BY_NAME);
+    this.roots = List.copyOf(roots);
+    children.forEach((id, list) -> {
+      list.sort(BY_NAME);
+      childrenById.put(id, List.copyOf(list));
+    });
+  }
+
+  @JsonProperty("nodes")
+  public List<CategoryNode> nodes() {
+    return nodes;
+  }
+
+  public Optional<CategoryNode> find(UUID id) {
+    return Optional.ofNullable(byId.get(id));
+  }
+
+  public List<CategoryNode> roots() {
+    return roots;
+  }
+
+  public List<CategoryNode> children(UUID id) {
+    return childrenById.getOrDefault(id, List.of());
+  }
+
+  /**
+   * Ancestors of {@code id} from the root down, ending with the category
+   * itself; empty for an unknown id.
+   */
+  public List<CategoryNode> breadcrumb(UUID id) {
+    var path = new ArrayList<CategoryNode>();
+    for (var node = byId.get(id); node != null; node = node.parentId() != null ? byId.get(node.parentId()) : null) {
+      path.add(node);
+    }
+    return path.reversed();
+  }
+}
@@ -0,0 +1,17 @@
+package dev.rayhan.spring_store.apis.category.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One category with its breadcrumb (root first, ending with itself) and
+ * its direct children.
+ */
+public record CategoryDto(
+  UUID id,
+  String name,
+  UUID parentId,
+  List<CategoryRef> breadcrumb,
+  List<CategoryRef> children
+) {
+}
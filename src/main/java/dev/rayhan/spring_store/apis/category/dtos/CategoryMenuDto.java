@@ -0,0 +1,7 @@
+package dev.rayhan.spring_store.apis.category.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CategoryMenuDto(UUID id, String name, List<CategoryMenuDto> children) {
+}
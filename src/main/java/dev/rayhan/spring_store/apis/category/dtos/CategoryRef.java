@@ -0,0 +1,6 @@
+package dev.rayhan.spring_store.apis.category.dtos;
+
+import java.util.UUID;
+
+public record CategoryRef(UUID id, String name) {
+}
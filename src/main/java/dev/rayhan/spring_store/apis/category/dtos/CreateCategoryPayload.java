@@ -0,0 +1,17 @@
+package dev.rayhan.spring_store.apis.category.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class CreateCategoryPayload {
+  @NotBlank(message = "Name is required")
+  @Size(max = 255)
+  private String name;
+
+  // null creates a root category
+  private UUID parentId;
+}
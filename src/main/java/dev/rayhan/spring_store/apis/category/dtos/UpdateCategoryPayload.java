@@ -0,0 +1,18 @@
+package dev.rayhan.spring_store.apis.category.dtos;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class UpdateCategoryPayload {
+  @Size(min = 1, max = 255)
+  private String name;
+
+  // moves the category, with its whole subtree, under this parent
+  private UUID parentId;
+
+  // moves the category, with its whole subtree, to the top level
+  private boolean root;
+}
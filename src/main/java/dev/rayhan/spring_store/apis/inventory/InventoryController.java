@@ -0,0 +1,31 @@
+package dev.rayhan.spring_store.apis.inventory;
+
+import dev.rayhan.spring_store.apis.inventory.dtos.StockDto;
+import dev.rayhan.spring_store.apis.inventory.dtos.UpdateStockPayload;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/inventory")
+@AllArgsConstructor
+public class InventoryController {
+  private final InventoryService inventoryService;
+
+  @GetMapping("/{productId}")
+  public ResponseEntity<StockDto> show(@PathVariable UUID productId) {
+    return ResponseEntity.ok(StockDto.of(productId, inventoryService.available(productId)));
+  }
+
+  @PutMapping("/{productId}")
+  public ResponseEntity<StockDto> update(
+    @PathVariable UUID productId,
+    @Valid @RequestBody UpdateStockPayload payload
+  ) {
+    inventoryService.setStock(productId, payload.getStock(), payload.getShards());
+    return ResponseEntity.ok(StockDto.of(productId, payload.getStock().longValue()));
+  }
+}
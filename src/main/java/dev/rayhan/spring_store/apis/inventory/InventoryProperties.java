@@ -0,0 +1,14 @@
+package dev.rayhan.spring_store.apis.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.inventory")
+public class InventoryProperties {
+  private Duration reservationTtl = Duration.ofMinutes(15);
+  private int reaperBatchSize = 500;
+  private int maxShards = 64;
+}
@@ -0,0 +1,193 @@
+package dev.rayhan.spring_store.apis.inventory;
+
+import dev.rayhan.spring_store.apis.inventory.entities.InventoryReservation;
+import dev.rayhan.spring_store.apis.inventory.repositories.InventoryReservationRepository;
+import dev.rayhan.spring_store.apis.inventory.repositories.StockRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@AllArgsConstructor
+public class InventoryService {
+  private final StockRepository stockRepository;
+  private final InventoryReservationRepository reservationRepository;
+  private final InventoryProperties properties;
+
+  /**
+   * Holds {@code quantity} units for the cart until the reservation expires.
+   *
+   * @throws ResponseStatusException 409 when there is not enough stock
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void reserve(UUID productId, Integer stockShards, UUID cartId, int quantity) {
+    var expiresAt = Instant.now().plus(properties.getReservationTtl());
+    // one reservation per shard the stock came from, so each part is released to its own shard
+    for (var taken : take(productId, stockShards, quantity)) {
+      reservationRepository.save(InventoryReservation.builder()
+        .productId(productId)
+        .cartId(cartId)
+        .shard(taken.shard())
+        .quantity(taken.quantity())
+        .expiresAt(expiresAt)
+        .build());
+    }
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void release(UUID cartId, UUID productId) {
+    reservationRepository.releaseForCartAndProduct(cartId, productId);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void releaseAll(UUID cartId) {
+    reservationRepository.releaseForCart(cartId);
+  }
+
+  /**
+   * Turns the cart's reservations into sold stock at checkout. Lines whose
+   * reservation already expired are reserved again, surplus is put back.
+   *
+   * @param quantities ordered quantity per product
+   * @param stockShards shard count per product
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void commit(UUID cartId, Map<UUID, Integer> quantities, Map<UUID, Integer> stockShards) {
+    var reservations = reservationRepository.findAllByCartIdForUpdate(cartId);
+    reservationRepository.deleteAllByCartId(cartId);
+
+    var reserved = new HashMap<UUID, Integer>();
+    var lastShard = new HashMap<UUID, Integer>();
+    for (var reservation : reservations) {
+      reserved.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+      lastShard.put(reservation.getProductId(), reservation.getShard());
+    }
+
+    quantities.forEach((productId, quantity) -> {
+      int missing = quantity - reserved.getOrDefault(productId, 0);
+      if (missing > 0) {
+        take(productId, stockShards.get(productId), missing);
+      }
+    });
+    reserved.forEach((productId, quantity) -> {
+      int surplus = quantity - quantities.getOrDefault(productId, 0);
+      if (surplus > 0) {
+        restock(productId, lastShard.get(productId), surplus);
+      }
+    });
+  }
+
+  /**
+   * @return the free stock, null when the product's stock is not tracked
+   */
+  @Transactional(readOnly = true)
+  public Long available(UUID productId) {
+    return stockRepository.findAvailability(productId)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"))
+      .getAvailable();
+  }
+
+  /**
+   * Sets the free stock of a product. With {@code shards > 0} the stock is
+   * split across that many sub-counter rows so concurrent reservations of
+   * a hot product update different rows instead of queueing on one.
+   * <p>
+   * The shard count cannot change while the product has reservations:
+   * they are released to the shard they were taken from, which the new
+   * layout may not have.
+   *
+   * @throws ResponseStatusException 409 when the shard count changes under outstanding reservations
+   */
+  @Transactional
+  public void setStock(UUID productId, int stock, int shards) {
+    if (shards > properties.getMaxShards()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shards must be at most " + properties.getMaxShards());
+    }
+    int currentShards = stockRepository.lockStockShards(productId)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    // also waits for reservations still taking from the old shard rows, so the check below sees them
+    stockRepository.deleteShards(productId);
+    if (currentShards != shards && reservationRepository.existsByProductId(productId)) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Stock shards cannot change while the product has reservations");
+    }
+    stockRepository.setStock(productId, shards > 0 ? 0 : stock, shards);
+    if (shards > 0) {
+      stockRepository.createShards(productId, stock, shards);
+    }
+  }
+
+  /**
+   * @return where the stock was taken from; a null shard is the product row
+   */
+  private List<Taken> take(UUID productId, Integer stockShards, int quantity) {
+    if (stockShards == null || stockShards <= 0) {
+      if (stockRepository.decrement(productId, quantity) == 0) {
+        throw outOfStock();
+      }
+      return List.of(new Taken(null, quantity));
+    }
+
+    // start at a random shard so concurrent buyers spread over the rows
+    int start = ThreadLocalRandom.current().nextInt(stockShards);
+    for (int i = 0; i < stockShards; i++) {
+      int shard = (start + i) % stockShards;
+      if (stockRepository.decrementShard(productId, shard, quantity) == 1) {
+        return List.of(new Taken(shard, quantity));
+      }
+    }
+    return spread(productId, quantity);
+  }
+
+  /**
+   * Slow path for a quantity no single shard holds: locks all shards of
+   * the product in shard order and takes the quantity from as many of
+   * them as needed. Nothing is decremented unless the shards cover it
+   * together.
+   */
+  private List<Taken> spread(UUID productId, int quantity) {
+    var shards = stockRepository.lockShards(productId);
+    if (shards.stream().mapToLong(StockRepository.ShardStock::getStock).sum() < quantity) {
+      throw outOfStock();
+    }
+    var taken = new ArrayList<Taken>();
+    int remaining = quantity;
+    for (var shard : shards) {
+      int part = Math.min(shard.getStock(), remaining);
+      if (part > 0) {
+        stockRepository.decrementShard(productId, shard.getShard(), part);
+        taken.add(new Taken(shard.getShard(), part));
+        remaining -= part;
+      }
+      if (remaining == 0) {
+        break;
+      }
+    }
+    return taken;
+  }
+
+  private void restock(UUID productId, Integer shard, int quantity) {
+    if (shard == null) {
+      stockRepository.increment(productId, quantity);
+    } else {
+      stockRepository.incrementShard(productId, shard, quantity);
+    }
+  }
+
+  private record Taken(Integer shard, int quantity) {
+  }
+
+  private static ResponseStatusException outOfStock() {
+    return new ResponseStatusException(HttpStatus.CONFLICT, "Out of stock");
+  }
+}
@@ -0,0 +1,50 @@
+package dev.rayhan.spring_store.apis.inventory;
+
+import dev.rayhan.spring_store.apis.inventory.repositories.InventoryReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Releases expired reservations back to stock. Each batch commits on its
+ * own and skips rows a checkout is holding, so the reaper never blocks
+ * buyers.
+ */
+@Slf4j
+@Component
+class ReservationReaper {
+  private final InventoryReservationRepository reservationRepository;
+  private final InventoryProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Counter released;
+
+  ReservationReaper(
+    InventoryReservationRepository reservationRepository,
+    InventoryProperties properties,
+    TransactionTemplate transactionTemplate,
+    MeterRegistry meterRegistry
+  ) {
+    this.reservationRepository = reservationRepository;
+    this.properties = properties;
+    this.transactionTemplate = transactionTemplate;
+    this.released = Counter.builder("store.inventory.reservations.expired").register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${store.inventory.reaper-interval:30s}")
+  public void releaseExpired() {
+    while (true) {
+      var batch = transactionTemplate.execute(status -> reservationRepository.releaseExpired(properties.getReaperBatchSize()));
+      if (batch == null || batch == 0) {
+        return;
+      }
+      released.increment(batch);
+      log.debug("Released {} expired reservations", batch);
+      if (batch < properties.getReaperBatchSize()) {
+        return;
+      }
+    }
+  }
+}
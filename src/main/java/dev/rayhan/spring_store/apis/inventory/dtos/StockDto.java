@@ -0,0 +1,13 @@
+package dev.rayhan.spring_store.apis.inventory.dtos;
+
+import java.util.UUID;
+
+/**
+ * {@code available} is null while the product's stock is not tracked;
+ * such products can always be added to a cart.
+ */
+public record StockDto(UUID productId, boolean tracked, Long available) {
+  public static StockDto of(UUID productId, Long available) {
+    return new StockDto(productId, available != null, available);
+  }
+}
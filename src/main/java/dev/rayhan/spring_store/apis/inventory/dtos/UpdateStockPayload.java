@@ -0,0 +1,16 @@
+package dev.rayhan.spring_store.apis.inventory.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class UpdateStockPayload {
+  @NotNull(message = "Stock is required")
+  @Min(value = 0, message = "Stock must not be negative")
+  private Integer stock;
+
+  // 0 keeps the whole stock on the product row
+  @Min(value = 0, message = "Shards must not be negative")
+  private int shards;
+}
@@ -0,0 +1,41 @@
+package dev.rayhan.spring_store.apis.inventory.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter @Setter @Builder @AllArgsConstructor @NoArgsConstructor
+
+@Entity
+@Table(name = "inventory_reservations")
+public class InventoryReservation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "product_id", nullable = false)
+  private UUID productId;
+
+  @Column(name = "cart_id", nullable = false)
+  private UUID cartId;
+
+  // null when taken from products.stock, otherwise the product_stock_shards row
+  @Column(name = "shard")
+  private Integer shard;
+
+  @Column(name = "quantity", nullable = false)
+  private Integer quantity;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  @PrePersist
+  public void initTimeStamp() {
+    createdAt = Instant.now();
+  }
+}
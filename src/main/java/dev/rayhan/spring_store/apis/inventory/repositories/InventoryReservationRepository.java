@@ -0,0 +1,74 @@
+package dev.rayhan.spring_store.apis.inventory.repositories;
+
+import dev.rayhan.spring_store.apis.inventory.entities.InventoryReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryReservationRepository extends CrudRepository<InventoryReservation, UUID> {
+  /**
+   * Puts the stock of the deleted reservations back where it was taken from
+   * and returns how many reservations were released. Appended to a
+   * {@code released} CTE that deletes reservations.
+   */
+  String RESTOCK_RELEASED = """
+    , restocked_products AS (
+      UPDATE products p SET stock = p.stock + r.quantity
+      FROM (SELECT product_id, sum(quantity) AS quantity FROM released WHERE shard IS NULL GROUP BY product_id) r
+      WHERE p.id = r.product_id
+      RETURNING p.id
+    ), restocked_shards AS (
+      INSERT INTO product_stock_shards (product_id, shard, stock)
+      SELECT product_id, shard, sum(quantity) FROM released WHERE shard IS NOT NULL GROUP BY product_id, shard
+      ON CONFLICT (product_id, shard) DO UPDATE SET stock = product_stock_shards.stock + excluded.stock
+      RETURNING product_id
+    )
+    SELECT count(*) FROM released
+    """;
+
+  boolean existsByProductId(UUID productId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select r from InventoryReservation r where r.cartId = :cartId")
+  List<InventoryReservation> findAllByCartIdForUpdate(@Param("cartId") UUID cartId);
+
+  @Modifying
+  @Query("delete from InventoryReservation r where r.cartId = :cartId")
+  int deleteAllByCartId(@Param("cartId") UUID cartId);
+
+  @Query(nativeQuery = true, value = """
+    WITH released AS (
+      DELETE FROM inventory_reservations WHERE cart_id = :cartId AND product_id = :productId
+      RETURNING product_id, shard, quantity
+    )
+    """ + RESTOCK_RELEASED)
+  long releaseForCartAndProduct(@Param("cartId") UUID cartId, @Param("productId") UUID productId);
+
+  @Query(nativeQuery = true, value = """
+    WITH released AS (
+      DELETE FROM inventory_reservations WHERE cart_id = :cartId
+      RETURNING product_id, shard, quantity
+    )
+    """ + RESTOCK_RELEASED)
+  long releaseForCart(@Param("cartId") UUID cartId);
+
+  @Query(nativeQuery = true, value = """
+    WITH released AS (
+      DELETE FROM inventory_reservations WHERE id IN (
+        SELECT id FROM inventory_reservations
+        WHERE expires_at < now()
+        ORDER BY expires_at
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+      )
+      RETURNING product_id, shard, quantity
+    )
+    """ + RESTOCK_RELEASED)
+  long releaseExpired(@Param("batchSize") int batchSize);
+}
@@ -0,0 +1,93 @@
+package dev.rayhan.spring_store.apis.inventory.repositories;
+
+import dev.rayhan.spring_store.apis.product.entities.Product;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stock is never read-modified-written: every change is a single
+ * conditional UPDATE so concurrent buyers of a hot product only contend
+ * on the row lock for the length of one statement.
+ * <p>
+ * A NULL {@code products.stock} means the product's stock is not tracked.
+ * The same statements work for it unchanged: {@code NULL - n} and
+ * {@code NULL + n} stay NULL, and the decrement lets it through.
+ */
+public interface StockRepository extends Repository<Product, UUID> {
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    UPDATE products SET stock = stock - :quantity
+    WHERE id = :productId AND (stock IS NULL OR stock >= :quantity)
+    """)
+  int decrement(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    UPDATE product_stock_shards SET stock = stock - :quantity
+    WHERE product_id = :productId AND shard = :shard AND stock >= :quantity
+    """)
+  int decrementShard(@Param("productId") UUID productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query(nativeQuery = true, value = "UPDATE products SET stock = stock + :quantity WHERE id = :productId")
+  int increment(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    INSERT INTO product_stock_shards (product_id, shard, stock) VALUES (:productId, :shard, :quantity)
+    ON CONFLICT (product_id, shard) DO UPDATE SET stock = product_stock_shards.stock + excluded.stock
+    """)
+  int incrementShard(@Param("productId") UUID productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+  // empty for an unknown product, a null available for an untracked one
+  @Query(nativeQuery = true, value = """
+    SELECT p.stock + coalesce((SELECT sum(s.stock) FROM product_stock_shards s WHERE s.product_id = p.id), 0) AS available
+    FROM products p WHERE p.id = :productId
+    """)
+  Optional<Availability> findAvailability(@Param("productId") UUID productId);
+
+  // serializes stock changes of one product, see InventoryService#setStock
+  @Query(nativeQuery = true, value = "SELECT stock_shards FROM products WHERE id = :productId FOR UPDATE")
+  Optional<Integer> lockStockShards(@Param("productId") UUID productId);
+
+  @Modifying
+  @Query(nativeQuery = true, value = "UPDATE products SET stock = :stock, stock_shards = :shards WHERE id = :productId")
+  int setStock(@Param("productId") UUID productId, @Param("stock") int stock, @Param("shards") int shards);
+
+  @Modifying
+  @Query(nativeQuery = true, value = "DELETE FROM product_stock_shards WHERE product_id = :productId")
+  int deleteShards(@Param("productId") UUID productId);
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    INSERT INTO product_stock_shards (product_id, shard, stock)
+    SELECT :productId, shard, :stock / :shards + CASE WHEN shard < :stock % :shards THEN 1 ELSE 0 END
+    FROM generate_series(0, :shards - 1) AS shard
+    """)
+  int createShards(@Param("productId") UUID productId, @Param("stock") int stock, @Param("shards") int shards);
+
+  // locks every shard of the product in one order, see InventoryService#spread
+  @Query(nativeQuery = true, value = """
+    SELECT shard, stock FROM product_stock_shards
+    WHERE product_id = :productId
+    ORDER BY shard
+    FOR UPDATE
+    """)
+  List<ShardStock> lockShards(@Param("productId") UUID productId);
+
+  interface ShardStock {
+    int getShard();
+
+    int getStock();
+  }
+
+  interface Availability {
+    Long getAvailable();
+  }
+}
@@ -0,0 +1,36 @@
+package dev.rayhan.spring_store.apis.live;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/live")
+@AllArgsConstructor
+@Tag(name = "Live updates", description = "Server-Sent Events for cart totals and product prices")
+class LiveController {
+  private final LiveUpdateHub hub;
+
+  @GetMapping(value = "/carts/{cartId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter cart(@PathVariable UUID cartId) {
+    return hub.subscribe(Set.of(LiveUpdatesListener.cartTopic(cartId)));
+  }
+
+  /**
+   * Price changes of the given products, or of every product when no ids
+   * are passed.
+   */
+  @GetMapping(value = "/products", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter products(@RequestParam(required = false) List<UUID> ids) {
+    if (ids == null || ids.isEmpty()) {
+      return hub.subscribe(Set.of(LiveUpdatesListener.PRODUCTS_TOPIC));
+    }
+    return hub.subscribe(ids.stream().map(LiveUpdatesListener::productTopic).toList());
+  }
+}
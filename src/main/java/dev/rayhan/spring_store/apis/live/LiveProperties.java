@@ -0,0 +1,20 @@
+package dev.rayhan.spring_store.apis.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.live")
+public class LiveProperties {
+  private int maxSubscribers = 50_000;
+  // clients reconnect with Last-Event-ID after this
+  private Duration emitterTimeout = Duration.ofMinutes(30);
+  // updates to the same key inside this window are sent once, latest value wins
+  private Duration coalesceWindow = Duration.ofMillis(250);
+  // a subscriber with more distinct unsent keys than this is disconnected
+  private int maxPendingPerSubscriber = 256;
+  // a subscriber whose socket has not accepted a write for this long is disconnected
+  private Duration slowConsumerTimeout = Duration.ofSeconds(10);
+}
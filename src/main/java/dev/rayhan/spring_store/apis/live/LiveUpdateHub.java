@@ -0,0 +1,232 @@
+package dev.rayhan.spring_store.apis.live;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fans updates out to SSE subscribers.
+ * <p>
+ * An idle subscriber costs an async request and a small map entry, no
+ * thread. Publishing only stores the latest value per key in the
+ * subscriber's pending map; a virtual thread then drains it after the
+ * coalesce window. A burst of changes to the same product or cart
+ * becomes one event, and a slow client holds at most one value per key.
+ * Clients that fall too far behind are disconnected and resync on
+ * reconnect. Only a subscriber's own writer touches its emitter after
+ * subscribe: the emitter's monitor may be held by a write that is stuck
+ * on a dead socket, and a publisher must never wait on it.
+ */
+@Slf4j
+@Component
+class LiveUpdateHub {
+  private final LiveProperties properties;
+  private final ConcurrentHashMap<String, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+  private final AtomicLong eventIds = new AtomicLong();
+  private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+  private final Counter coalesced;
+  private final Counter dropped;
+
+  LiveUpdateHub(LiveProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    Gauge.builder("store.live.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    this.coalesced = Counter.builder("store.live.coalesced")
+      .description("Updates replaced by a newer value before they were sent")
+      .register(meterRegistry);
+    this.dropped = Counter.builder("store.live.dropped")
+      .description("Subscribers disconnected for falling behind")
+      .register(meterRegistry);
+  }
+
+  SseEmitter subscribe(Collection<String> topics) {
+    if (topics.size() > properties.getMaxPendingPerSubscriber()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many topics");
+    }
+    if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+      subscriberCount.decrementAndGet();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers");
+    }
+
+    var subscriber = new Subscriber(new SseEmitter(properties.getEmitterTimeout().toMillis()), Set.copyOf(topics));
+    subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+    subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+    subscriber.emitter.onError(error -> unsubscribe(subscriber));
+    for (var topic : subscriber.topics) {
+      subscribersByTopic.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+    return subscriber.emitter;
+  }
+
+  boolean hasSubscribers(String topic) {
+    var subscribers = subscribersByTopic.get(topic);
+    return subscribers != null && !subscribers.isEmpty();
+  }
+
+  /**
+   * @param key identifies the value being updated; a newer update with
+   *            the same key replaces an unsent older one
+   */
+  void publish(String topic, String key, String eventName, Object data) {
+    var subscribers = subscribersByTopic.get(topic);
+    if (subscribers == null) {
+      return;
+    }
+    var update = new Update(eventName, data);
+    for (var subscriber : subscribers) {
+      subscriber.offer(key, update);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${store.live.heartbeat-interval:15s}")
+  public void heartbeat() {
+    // writes to dead connections fail here, which unsubscribes them
+    forEachSubscriber(subscriber -> subscriber.offer("heartbeat", Update.HEARTBEAT));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    forEachSubscriber(subscriber -> subscriber.emitter.complete());
+    writers.shutdownNow();
+  }
+
+  private void forEachSubscriber(Consumer<Subscriber> action) {
+    var seen = ConcurrentHashMap.<Subscriber>newKeySet();
+    for (var subscribers : subscribersByTopic.values()) {
+      for (var subscriber : subscribers) {
+        if (seen.add(subscriber)) {
+          action.accept(subscriber);
+        }
+      }
+    }
+  }
+
+  private boolean unsubscribe(Subscriber subscriber) {
+    if (!subscriber.closed.compareAndSet(false, true)) {
+      return false;
+    }
+    subscriberCount.decrementAndGet();
+    for (var topic : subscriber.topics) {
+      subscribersByTopic.computeIfPresent(topic, (key, subscribers) -> {
+        subscribers.remove(subscriber);
+        return subscribers.isEmpty() ? null : subscribers;
+      });
+    }
+    return true;
+  }
+
+  private void drop(Subscriber subscriber, String reason) {
+    if (!unsubscribe(subscriber)) {
+      return;
+    }
+    dropped.increment();
+    log.debug("Disconnecting live subscriber: {}", reason);
+    // completed by the writer, which may be stuck in a send right now;
+    // a writer already past its last check is replaced by a fresh one
+    subscriber.disconnect.set(true);
+    subscriber.scheduleWriter();
+  }
+
+  private record Update(String eventName, Object data) {
+    static final Update HEARTBEAT = new Update(null, null);
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final Set<String> topics;
+    private final ConcurrentHashMap<String, Update> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // set when the hub dropped the subscriber; the writer then completes the emitter
+    private final AtomicBoolean disconnect = new AtomicBoolean();
+    // nanoTime when the write in progress started, 0 when not writing
+    private volatile long writeStartedAt;
+
+    Subscriber(SseEmitter emitter, Set<String> topics) {
+      this.emitter = emitter;
+      this.topics = topics;
+    }
+
+    void offer(String key, Update update) {
+      if (closed.get()) {
+        return;
+      }
+      long started = writeStartedAt;
+      if (started != 0 && System.nanoTime() - started > properties.getSlowConsumerTimeout().toNanos()) {
+        drop(this, "write blocked");
+        return;
+      }
+      if (pending.put(key, update) != null) {
+        coalesced.increment();
+      } else if (pending.size() > properties.getMaxPendingPerSubscriber()) {
+        drop(this, "too many pending updates");
+        return;
+      }
+      scheduleWriter();
+    }
+
+    void scheduleWriter() {
+      if (scheduled.compareAndSet(false, true)) {
+        writers.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        do {
+          Thread.sleep(properties.getCoalesceWindow());
+          for (var key : pending.keySet()) {
+            var update = pending.remove(key);
+            if (update != null && !closed.get()) {
+              send(update);
+            }
+          }
+          scheduled.set(false);
+        } while (!pending.isEmpty() && !closed.get() && scheduled.compareAndSet(false, true));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException | IllegalStateException e) {
+        // client went away; the emitter callbacks clean up
+        unsubscribe(this);
+      } finally {
+        if (disconnect.compareAndSet(true, false)) {
+          emitter.complete();
+        }
+      }
+    }
+
+    private void send(Update update) throws IOException {
+      writeStartedAt = System.nanoTime();
+      try {
+        if (update == Update.HEARTBEAT) {
+          emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+          emitter.send(SseEmitter.event()
+            .id(Long.toString(eventIds.incrementAndGet()))
+            .name(update.eventName())
+            .data(update.data()));
+        }
+      } finally {
+        writeStartedAt = 0;
+      }
+    }
+  }
+}
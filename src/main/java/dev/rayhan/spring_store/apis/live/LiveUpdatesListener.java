@@ -0,0 +1,90 @@
+package dev.rayhan.spring_store.apis.live;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.rayhan.spring_store.apis.cart.CartEvents;
+import dev.rayhan.spring_store.apis.cart.repositories.CartItemRepository;
+import dev.rayhan.spring_store.apis.product.ProductEvents;
+import dev.rayhan.spring_store.common.outbox.OutboxMessage;
+import lombok.AllArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Turns outbox events into live updates. Runs on the outbox dispatcher,
+ * never on the request that made the change.
+ */
+@Component
+@AllArgsConstructor
+class LiveUpdatesListener {
+  static final String PRODUCTS_TOPIC = "products";
+
+  private final LiveUpdateHub hub;
+  private final CartItemRepository cartItemRepository;
+
+  static String productTopic(Object productId) {
+    return "product:" + productId;
+  }
+
+  static String cartTopic(Object cartId) {
+    return "cart:" + cartId;
+  }
+
+  @EventListener
+  public void on(OutboxMessage message) {
+    if (message.aggregateType().equals(ProductEvents.AGGREGATE)) {
+      onProductEvent(message);
+    } else if (message.aggregateType().equals(ProductEvents.REPRICING_AGGREGATE)) {
+      onRepricedEvent(message);
+    } else if (message.aggregateType().equals(CartEvents.AGGREGATE)) {
+      onCartEvent(message);
+    }
+  }
+
+  private void onProductEvent(OutboxMessage message) {
+    var productId = message.aggregateId();
+    var key = productTopic(productId);
+    if (message.eventType().equals(ProductEvents.DELETED)) {
+      var data = Map.of("productId", productId, "deleted", true);
+      hub.publish(key, key, "product-deleted", data);
+      hub.publish(PRODUCTS_TOPIC, key, "product-deleted", data);
+      return;
+    }
+
+    publishPrice(productId, message.payload().path("price"));
+  }
+
+  // one event per repricing chunk, fanned out to the same per-product price updates
+  private void onRepricedEvent(OutboxMessage message) {
+    for (var product : message.payload().path("products")) {
+      publishPrice(UUID.fromString(product.path("productId").asText()), product.path("price"));
+    }
+  }
+
+  private void publishPrice(UUID productId, JsonNode price) {
+    if (price.isMissingNode() || price.isNull()) {
+      return;
+    }
+    var key = productTopic(productId);
+    var data = Map.of("productId", productId, "price", price.asDouble());
+    hub.publish(key, key, "price", data);
+    hub.publish(PRODUCTS_TOPIC, key, "price", data);
+  }
+
+  private void onCartEvent(OutboxMessage message) {
+    var cartId = message.aggregateId();
+    var topic = cartTopic(cartId);
+    // nobody is watching this cart, skip the totals query
+    if (!hub.hasSubscribers(topic)) {
+      return;
+    }
+    var totals = cartItemRepository.findTotals(cartId);
+    hub.publish(topic, topic, "cart", Map.of(
+      "cartId", cartId,
+      "totalPrice", totals.totalPrice(),
+      "itemCount", totals.itemCount()
+    ));
+  }
+}
@@ -0,0 +1,41 @@
+package dev.rayhan.spring_store.apis.loyalty;
+
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyAccountDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyBalanceDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyTransactionPayload;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/{userId}/loyalty")
+@AllArgsConstructor
+@Tag(name = "Loyalty", description = "Loyalty points balance and ledger")
+public class LoyaltyController {
+  private final LoyaltyService loyaltyService;
+
+  @GetMapping
+  public ResponseEntity<LoyaltyAccountDto> show(@PathVariable UUID userId) {
+    return ResponseEntity.ok(loyaltyService.getAccount(userId));
+  }
+
+  @PostMapping("/awards")
+  public ResponseEntity<LoyaltyBalanceDto> award(
+    @PathVariable UUID userId,
+    @Valid @RequestBody LoyaltyTransactionPayload payload
+  ) {
+    return ResponseEntity.ok(loyaltyService.award(userId, payload.getPoints(), payload.getReason(), payload.getReference()));
+  }
+
+  @PostMapping("/redemptions")
+  public ResponseEntity<LoyaltyBalanceDto> redeem(
+    @PathVariable UUID userId,
+    @Valid @RequestBody LoyaltyTransactionPayload payload
+  ) {
+    return ResponseEntity.ok(loyaltyService.redeem(userId, payload.getPoints(), payload.getReason(), payload.getReference()));
+  }
+}
@@ -0,0 +1,17 @@
+package dev.rayhan.spring_store.apis.loyalty;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.loyalty")
+public class LoyaltyProperties {
+  // points awarded per whole currency unit of an order's total
+  private int pointsPerCurrencyUnit = 1;
+  private int maxPointsPerTransaction = 1_000_000;
+  private int historyLimit = 50;
+  // ledger rows younger than this may still be committing and wait for the next snapshot
+  private Duration snapshotSettleTime = Duration.ofMinutes(5);
+}
@@ -0,0 +1,90 @@
+package dev.rayhan.spring_store.apis.loyalty;
+
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyAccountDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyBalanceDto;
+import dev.rayhan.spring_store.apis.loyalty.repositories.LoyaltyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+@Service
+@AllArgsConstructor
+public class LoyaltyService {
+  private final LoyaltyRepository loyaltyRepository;
+  private final LoyaltyProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  @Transactional
+  public LoyaltyBalanceDto award(UUID userId, int points, String reason, String reference) {
+    checkPoints(points);
+    if (!append(userId, points, reason, reference)) {
+      return unchanged(userId);
+    }
+    var balance = loyaltyRepository.addToBalance(userId, points);
+    meterRegistry.counter("store.loyalty.points", "type", "awarded").increment(points);
+    return new LoyaltyBalanceDto(userId, balance, true);
+  }
+
+  @Transactional
+  public LoyaltyBalanceDto redeem(UUID userId, int points, String reason, String reference) {
+    checkPoints(points);
+    if (!append(userId, -points, reason, reference)) {
+      return unchanged(userId);
+    }
+    // throwing rolls the ledger row back with it
+    var balance = loyaltyRepository.subtractFromBalance(userId, points)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Not enough loyalty points"));
+    meterRegistry.counter("store.loyalty.points", "type", "redeemed").increment(points);
+    return new LoyaltyBalanceDto(userId, balance, true);
+  }
+
+  /**
+   * Points for an order total, awarded once per order.
+   */
+  @Transactional
+  public void awardForOrder(UUID userId, UUID orderId, long orderTotal) {
+    long points = orderTotal * properties.getPointsPerCurrencyUnit();
+    if (points > 0) {
+      award(userId, (int) Math.min(points, properties.getMaxPointsPerTransaction()), "order", "order:" + orderId);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public LoyaltyAccountDto getAccount(UUID userId) {
+    var transactions = loyaltyRepository.findRecentTransactions(userId, properties.getHistoryLimit()).stream()
+      .map(transaction -> new LoyaltyAccountDto.Transaction(
+        transaction.getId(),
+        transaction.getDelta(),
+        transaction.getReason(),
+        transaction.getReference(),
+        transaction.getCreatedAt()))
+      .toList();
+    return new LoyaltyAccountDto(userId, loyaltyRepository.findBalance(userId).orElse(0L), transactions);
+  }
+
+  private boolean append(UUID userId, int delta, String reason, String reference) {
+    try {
+      return loyaltyRepository.appendTransaction(userId, delta, reason, reference).isPresent();
+    } catch (DataIntegrityViolationException e) {
+      // the only FK is the user
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+    }
+  }
+
+  private LoyaltyBalanceDto unchanged(UUID userId) {
+    return new LoyaltyBalanceDto(userId, loyaltyRepository.findBalance(userId).orElse(0L), false);
+  }
+
+  private void checkPoints(int points) {
+    if (points <= 0 || points > properties.getMaxPointsPerTransaction()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Points must be between 1 and " + properties.getMaxPointsPerTransaction());
+    }
+  }
+}
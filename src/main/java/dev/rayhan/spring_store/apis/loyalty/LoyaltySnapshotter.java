@@ -0,0 +1,65 @@
+package dev.rayhan.spring_store.apis.loyalty;
+
+import dev.rayhan.spring_store.apis.loyalty.repositories.LoyaltyRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically rolls {@code loyalty_snapshots} forward over the new part
+ * of the ledger and checks every balance against snapshot plus ledger.
+ * A balance can then be audited, or rebuilt, without summing a user's
+ * whole history. Drift is exported as {@code store.loyalty.drifted.balances}
+ * and should stay 0.
+ */
+@Slf4j
+@Component
+class LoyaltySnapshotter {
+  private static final long LOCK_KEY = 0x4c4f_5941L;
+
+  private final LoyaltyRepository loyaltyRepository;
+  private final LoyaltyProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final JdbcTemplate jdbcTemplate;
+  private final AtomicLong drifted = new AtomicLong();
+
+  LoyaltySnapshotter(
+    LoyaltyRepository loyaltyRepository,
+    LoyaltyProperties properties,
+    TransactionTemplate transactionTemplate,
+    JdbcTemplate jdbcTemplate,
+    MeterRegistry meterRegistry
+  ) {
+    this.loyaltyRepository = loyaltyRepository;
+    this.properties = properties;
+    this.transactionTemplate = transactionTemplate;
+    this.jdbcTemplate = jdbcTemplate;
+    Gauge.builder("store.loyalty.drifted.balances", drifted, AtomicLong::get).register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${store.loyalty.snapshot-interval:1h}")
+  public void snapshot() {
+    transactionTemplate.executeWithoutResult(status -> {
+      // one node per run
+      Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+      if (!Boolean.TRUE.equals(locked)) {
+        return;
+      }
+      var upTo = loyaltyRepository.findSettledTransactionId(Instant.now().minus(properties.getSnapshotSettleTime()));
+      int users = loyaltyRepository.rollSnapshotsForward(upTo);
+      long count = loyaltyRepository.countDriftedBalances();
+      drifted.set(count);
+      if (count > 0) {
+        log.warn("{} loyalty balances do not match their ledger", count);
+      }
+      log.debug("Loyalty snapshots rolled forward for {} users up to transaction {}", users, upTo);
+    });
+  }
+}
@@ -0,0 +1,10 @@
+package dev.rayhan.spring_store.apis.loyalty.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record LoyaltyAccountDto(UUID userId, long balance, List<Transaction> transactions) {
+  public record Transaction(long id, int delta, String reason, String reference, Instant createdAt) {
+  }
+}
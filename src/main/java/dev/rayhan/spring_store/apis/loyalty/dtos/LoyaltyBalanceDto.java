@@ -0,0 +1,10 @@
+package dev.rayhan.spring_store.apis.loyalty.dtos;
+
+import java.util.UUID;
+
+/**
+ * Balance after a change. {@code applied} is false when the reference had
+ * already been used and nothing changed.
+ */
+public record LoyaltyBalanceDto(UUID userId, long balance, boolean applied) {
+}
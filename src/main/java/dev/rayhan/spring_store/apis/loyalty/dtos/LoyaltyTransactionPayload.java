@@ -0,0 +1,22 @@
+package dev.rayhan.spring_store.apis.loyalty.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class LoyaltyTransactionPayload {
+  @NotNull(message = "Points are required")
+  @Positive(message = "Points must be positive")
+  private Integer points;
+
+  @NotBlank(message = "Reason is required")
+  @Size(max = 64)
+  private String reason;
+
+  // repeated requests with the same reference are applied once
+  @Size(max = 128)
+  private String reference;
+}
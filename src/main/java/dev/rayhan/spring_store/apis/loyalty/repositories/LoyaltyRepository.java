@@ -0,0 +1,130 @@
+package dev.rayhan.spring_store.apis.loyalty.repositories;
+
+import dev.rayhan.spring_store.common.entities.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Points are never read-modified-written. A change appends one row to
+ * {@code loyalty_transactions} and moves {@code loyalty_balances} with a
+ * single increment, so concurrent awards for the same user only queue on
+ * that row's lock for one statement and none of them is lost.
+ */
+public interface LoyaltyRepository extends Repository<User, UUID> {
+
+  /**
+   * Appends a ledger row. Returns empty when {@code reference} was already
+   * used for this user, which makes retried awards no-ops.
+   */
+  @Query(nativeQuery = true, value = """
+    INSERT INTO loyalty_transactions (user_id, delta, reason, reference)
+    VALUES (:userId, :delta, :reason, :reference)
+    ON CONFLICT (user_id, reference) WHERE reference IS NOT NULL DO NOTHING
+    RETURNING id
+    """)
+  Optional<Long> appendTransaction(
+    @Param("userId") UUID userId,
+    @Param("delta") int delta,
+    @Param("reason") String reason,
+    @Param("reference") String reference
+  );
+
+  @Query(nativeQuery = true, value = """
+    INSERT INTO loyalty_balances (user_id, balance, updated_at)
+    VALUES (:userId, :points, now())
+    ON CONFLICT (user_id) DO UPDATE SET
+      balance = loyalty_balances.balance + excluded.balance,
+      updated_at = now()
+    RETURNING balance
+    """)
+  long addToBalance(@Param("userId") UUID userId, @Param("points") int points);
+
+  /**
+   * Takes {@code points} only if the balance covers them; empty otherwise.
+   */
+  @Query(nativeQuery = true, value = """
+    UPDATE loyalty_balances SET balance = balance - :points, updated_at = now()
+    WHERE user_id = :userId AND balance >= :points
+    RETURNING balance
+    """)
+  Optional<Long> subtractFromBalance(@Param("userId") UUID userId, @Param("points") int points);
+
+  @Query(nativeQuery = true, value = "SELECT balance FROM loyalty_balances WHERE user_id = :userId")
+  Optional<Long> findBalance(@Param("userId") UUID userId);
+
+  @Query(nativeQuery = true, value = """
+    SELECT id, delta, reason, reference, created_at AS createdAt FROM loyalty_transactions
+    WHERE user_id = :userId
+    ORDER BY id DESC
+    LIMIT :limit
+    """)
+  List<LoyaltyTransactionView> findRecentTransactions(@Param("userId") UUID userId, @Param("limit") int limit);
+
+  /**
+   * Highest ledger id that is older than {@code settledBefore}. Ids are
+   * handed out at insert but become visible at commit, so only ids old
+   * enough that no transaction can still be committing below them are
+   * safe to snapshot up to.
+   */
+  @Query(nativeQuery = true, value = """
+    SELECT coalesce(max(id), 0) FROM loyalty_transactions WHERE created_at < :settledBefore
+    """)
+  long findSettledTransactionId(@Param("settledBefore") Instant settledBefore);
+
+  /**
+   * Rolls every user's snapshot forward by the ledger rows after the last
+   * snapshot, up to {@code upTo}. Reads only the new part of the ledger.
+   */
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    WITH bounds AS (
+      SELECT coalesce(max(last_transaction_id), 0) AS from_id FROM loyalty_snapshots
+    ), deltas AS (
+      SELECT t.user_id, sum(t.delta) AS delta, max(t.id) AS last_id
+      FROM loyalty_transactions t, bounds
+      WHERE t.id > bounds.from_id AND t.id <= :upTo
+      GROUP BY t.user_id
+    )
+    INSERT INTO loyalty_snapshots AS s (user_id, balance, last_transaction_id, taken_at)
+    SELECT user_id, delta, last_id, now() FROM deltas
+    ON CONFLICT (user_id) DO UPDATE SET
+      balance = s.balance + excluded.balance,
+      last_transaction_id = excluded.last_transaction_id,
+      taken_at = now()
+    """)
+  int rollSnapshotsForward(@Param("upTo") long upTo);
+
+  /**
+   * Users whose balance differs from snapshot plus the ledger since then.
+   * One statement, so balances and ledger are read from the same MVCC
+   * snapshot even while awards keep coming in.
+   */
+  @Query(nativeQuery = true, value = """
+    SELECT count(*) FROM loyalty_balances b
+    LEFT JOIN loyalty_snapshots s ON s.user_id = b.user_id
+    WHERE b.balance <> coalesce(s.balance, 0) + coalesce((
+      SELECT sum(t.delta) FROM loyalty_transactions t
+      WHERE t.user_id = b.user_id AND t.id > coalesce(s.last_transaction_id, 0)
+    ), 0)
+    """)
+  long countDriftedBalances();
+
+  interface LoyaltyTransactionView {
+    Long getId();
+
+    Integer getDelta();
+
+    String getReason();
+
+    String getReference();
+
+    Instant getCreatedAt();
+  }
+}
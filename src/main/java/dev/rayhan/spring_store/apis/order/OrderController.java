@@ -0,0 +1,35 @@
+package dev.rayhan.spring_store.apis.order;
+
+import dev.rayhan.spring_store.apis.order.dtos.CheckoutPayload;
+import dev.rayhan.spring_store.apis.order.dtos.OrderDto;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/orders")
+@AllArgsConstructor
+@Tag(name = "Orders", description = "Checkout and order lookups")
+public class OrderController {
+  private final OrderService orderService;
+
+  @PostMapping
+  public ResponseEntity<OrderDto> checkout(
+    @Valid @RequestBody CheckoutPayload payload,
+    UriComponentsBuilder uriBuilder
+  ) {
+    var order = orderService.checkout(payload.getCartId(), payload.getUserId());
+    var uri = uriBuilder.path("/orders/{id}").buildAndExpand(order.getId()).toUri();
+    return ResponseEntity.created(uri).body(order);
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<OrderDto> show(@PathVariable UUID id) {
+    return ResponseEntity.ok(orderService.getOrder(id));
+  }
+}
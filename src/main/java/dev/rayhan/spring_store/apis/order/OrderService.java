@@ -0,0 +1,98 @@
+package dev.rayhan.spring_store.apis.order;
+
+import dev.rayhan.spring_store.apis.cart.repositories.CartItemRepository;
+import dev.rayhan.spring_store.apis.cart.repositories.CartRepository;
+import dev.rayhan.spring_store.apis.inventory.InventoryService;
+import dev.rayhan.spring_store.apis.loyalty.LoyaltyService;
+import dev.rayhan.spring_store.apis.order.dtos.OrderDto;
+import dev.rayhan.spring_store.apis.order.entities.Order;
+import dev.rayhan.spring_store.apis.order.entities.OrderItem;
+import dev.rayhan.spring_store.apis.order.mappers.OrderMapper;
+import dev.rayhan.spring_store.apis.order.repositories.OrderRepository;
+import dev.rayhan.spring_store.common.cache.CacheRegions;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.UUID;
+
+@Service
+@AllArgsConstructor
+class OrderService {
+  private final CartRepository cartRepository;
+  private final CartItemRepository cartItemRepository;
+  private final OrderRepository orderRepository;
+  private final OrderMapper mapper;
+  private final InventoryService inventoryService;
+  private final LoyaltyService loyaltyService;
+  private final TieredCache cache;
+
+  /**
+   * Turns a cart into an order. The statement count does not depend on
+   * the number of lines: lock the cart, read every line with its current
+   * price in one query, insert the order and its lines as one JDBC batch,
+   * and clear the cart with a single bulk delete. Stock held by the
+   * cart's reservations is committed, and loyalty points are awarded,
+   * in the same transaction.
+   */
+  @Transactional
+  public OrderDto checkout(UUID cartId, UUID userId) {
+    cartRepository.findByIdForUpdate(cartId)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart not found"));
+
+    var lines = cartItemRepository.findCheckoutLines(cartId);
+    if (lines.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
+    }
+
+    var order = Order.builder().cartId(cartId).build();
+    var total = BigDecimal.ZERO;
+    var itemCount = 0;
+    var quantities = new HashMap<UUID, Integer>();
+    var stockShards = new HashMap<UUID, Integer>();
+    for (var line : lines) {
+      // products.price is nullable; a line without a price cannot be charged
+      if (line.unitPrice() == null) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Product " + line.productId() + " has no price");
+      }
+      var unitPrice = BigDecimal.valueOf(line.unitPrice()).setScale(2, RoundingMode.HALF_UP);
+      var lineTotal = unitPrice.multiply(BigDecimal.valueOf(line.quantity()));
+      order.addItem(OrderItem.builder()
+        .productId(line.productId())
+        .productName(line.productName())
+        .unitPrice(unitPrice)
+        .quantity(line.quantity())
+        .lineTotal(lineTotal)
+        .build());
+      total = total.add(lineTotal);
+      itemCount += line.quantity();
+      quantities.merge(line.productId(), line.quantity(), Integer::sum);
+      stockShards.put(line.productId(), line.stockShards());
+    }
+    order.setTotalPrice(total);
+    order.setItemCount(itemCount);
+
+    inventoryService.commit(cartId, quantities, stockShards);
+    orderRepository.save(order);
+    if (userId != null) {
+      loyaltyService.awardForOrder(userId, order.getId(), total.longValue());
+    }
+    cartItemRepository.deleteAllByCartId(cartId);
+    cache.evictAfterCommit(CacheRegions.CART, cartId.toString());
+
+    return mapper.toDto(order);
+  }
+
+  @Transactional(readOnly = true)
+  public OrderDto getOrder(UUID id) {
+    var order = orderRepository.findWithItemsById(id)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+    return mapper.toDto(order);
+  }
+}
@@ -0,0 +1,15 @@
+package dev.rayhan.spring_store.apis.order.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class CheckoutPayload {
+  @NotNull(message = "Cart id is required")
+  private UUID cartId;
+
+  // the buyer, when known, is awarded loyalty points for the order
+  private UUID userId;
+}
@@ -0,0 +1,19 @@
+package dev.rayhan.spring_store.apis.order.dtos;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class OrderDto {
+  private UUID id;
+  private String status;
+  private Integer itemCount;
+  private BigDecimal totalPrice;
+  private List<OrderItemDto> items = new ArrayList<>();
+  private Instant createdAt;
+}
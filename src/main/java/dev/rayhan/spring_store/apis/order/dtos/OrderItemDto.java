@@ -0,0 +1,15 @@
+package dev.rayhan.spring_store.apis.order.dtos;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+public class OrderItemDto {
+  private UUID productId;
+  private String productName;
+  private BigDecimal unitPrice;
+  private Integer quantity;
+  private BigDecimal lineTotal;
+}
@@ -0,0 +1,65 @@
+package dev.rayhan.spring_store.apis.order.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "orders")
+public class Order {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @Column(name = "cart_id")
+  private UUID cartId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  @Builder.Default
+  private OrderStatus status = OrderStatus.PLACED;
+
+  @Column(name = "item_count", nullable = false)
+  private Integer itemCount;
+
+  @Column(name = "total_price", nullable = false, precision = 12, scale = 2)
+  private BigDecimal totalPrice;
+
+  @OneToMany(mappedBy = "order", cascade = CascadeType.PERSIST)
+  @Builder.Default
+  private List<OrderItem> items = new ArrayList<>();
+
+  @Column(name = "created_at")
+  private Instant createdAt;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  @PrePersist
+  public void initTimeStamp() {
+    createdAt = Instant.now();
+    updatedAt = createdAt;
+  }
+
+  @PreUpdate
+  public void setUpdatedAt() {
+    updatedAt = Instant.now();
+  }
+
+  public void addItem(OrderItem item) {
+    items.add(item);
+    item.setOrder(this);
+  }
+}
@@ -0,0 +1,50 @@
+package dev.rayhan.spring_store.apis.order.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter @Setter @Builder @AllArgsConstructor @NoArgsConstructor
+
+@Entity
+@Table(name = "order_items")
+public class OrderItem {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "order_id", nullable = false)
+  private Order order;
+
+  // snapshot of the product at checkout, not a live association
+  @Column(name = "product_id")
+  private UUID productId;
+
+  @Column(name = "product_name", nullable = false)
+  private String productName;
+
+  @Column(name = "unit_price", nullable = false, precision = 12, scale = 2)
+  private BigDecimal unitPrice;
+
+  @Column(name = "quantity", nullable = false)
+  private Integer quantity;
+
+  @Column(name = "line_total", nullable = false, precision = 12, scale = 2)
+  private BigDecimal lineTotal;
+
+  @Column(name = "created_at")
+  private Instant createdAt;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  @PrePersist
+  public void initTimeStamp() {
+    createdAt = Instant.now();
+    updatedAt = createdAt;
+  }
+}
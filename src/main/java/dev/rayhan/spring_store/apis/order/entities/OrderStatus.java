@@ -0,0 +1,5 @@
+package dev.rayhan.spring_store.apis.order.entities;
+
+public enum OrderStatus {
+  PLACED
+}
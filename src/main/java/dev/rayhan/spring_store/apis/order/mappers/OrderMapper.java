@@ -0,0 +1,14 @@
+package dev.rayhan.spring_store.apis.order.mappers;
+
+import dev.rayhan.spring_store.apis.order.dtos.OrderDto;
+import dev.rayhan.spring_store.apis.order.dtos.OrderItemDto;
+import dev.rayhan.spring_store.apis.order.entities.Order;
+import dev.rayhan.spring_store.apis.order.entities.OrderItem;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface OrderMapper {
+  OrderDto toDto(Order order);
+
+  OrderItemDto toDto(OrderItem item);
+}
@@ -0,0 +1,13 @@
+package dev.rayhan.spring_store.apis.order.repositories;
+
+import dev.rayhan.spring_store.apis.order.entities.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderRepository extends CrudRepository<Order, UUID> {
+  @EntityGraph(attributePaths = "items")
+  Optional<Order> findWithItemsById(UUID id);
+}
@@ -1,15 +1,22 @@
 package dev.rayhan.spring_store.apis.product;
 
 import dev.rayhan.spring_store.apis.product.dtos.CreateProductPayload;
+import dev.rayhan.spring_store.apis.product.dtos.PriceHistoryDto;
+import dev.rayhan.spring_store.apis.product.dtos.RelatedProductDto;
 import dev.rayhan.spring_store.apis.product.dtos.ProductListFilterRequestQueryParam;
 import dev.rayhan.spring_store.apis.product.dtos.UpdateProductPayload;
+import dev.rayhan.spring_store.apis.product.popularity.PopularityCounters;
 import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import dev.rayhan.spring_store.common.dtos.PageResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
@@ -20,15 +27,52 @@ import java.util.UUID;
 @AllArgsConstructor
 @Tag(name = "Products", description = "Product related operations")
 public class ProductController {
+  // price_history keeps 24 monthly partitions
+  private static final int MAX_PRICE_HISTORY_DAYS = 730;
+
   private final ProductService productService;
+  private final PopularityCounters popularityCounters;
 
   @GetMapping("/")
-  public ResponseEntity<List<ProductListDto>> index(
+  public ResponseEntity<PageResponse<ProductListDto>> index(
     @Valid ProductListFilterRequestQueryParam filter
     ) {
     return productService.getAllProducts(filter);
   }
 
+  @GetMapping("/{id}")
+  public ResponseEntity<ProductListDto> show(@PathVariable UUID id) {
+    var product = productService.getProduct(id);
+    popularityCounters.recordView(id);
+    return ResponseEntity.ok(product);
+  }
+
+  @GetMapping("/{id}/price-history")
+  public ResponseEntity<PriceHistoryDto> priceHistory(
+    @PathVariable UUID id,
+    @RequestParam(defaultValue = "30") int days
+  ) {
+    if (days < 1 || days > MAX_PRICE_HISTORY_DAYS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be between 1 and " + MAX_PRICE_HISTORY_DAYS);
+    }
+    return ResponseEntity.ok(productService.getPriceHistory(id, days));
+  }
+
+  @GetMapping("/{id}/related")
+  public ResponseEntity<List<RelatedProductDto>> related(
+    @PathVariable UUID id,
+    @RequestParam(defaultValue = "10") int limit
+  ) {
+    return ResponseEntity.ok(productService.getRelatedProducts(id, Math.max(1, limit)));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> export() {
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .body(productService::exportProducts);
+  }
+
   @PostMapping("/")
   public ResponseEntity<ProductListDto> store(
     @Valid @RequestBody CreateProductPayload payload,
@@ -0,0 +1,21 @@
+package dev.rayhan.spring_store.apis.product;
+
+/**
+ * Outbox event names for products. Created and updated events carry a
+ * {@code ProductListDto}, deleted events only the id. Repriced events
+ * belong to {@link #REPRICING_AGGREGATE}, keyed by the repricing job, and
+ * carry the old and new price of every product in one chunk under
+ * {@code products}.
+ */
+public final class ProductEvents {
+  public static final String AGGREGATE = "product";
+  // aggregate id is a repricing job, not a product
+  public static final String REPRICING_AGGREGATE = "product-repricing";
+  public static final String CREATED = "ProductCreated";
+  public static final String UPDATED = "ProductUpdated";
+  public static final String DELETED = "ProductDeleted";
+  public static final String REPRICED = "ProductsRepriced";
+
+  private ProductEvents() {
+  }
+}
@@ -1,59 +1,219 @@
 package dev.rayhan.spring_store.apis.product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.apis.category.CategoryNode;
+import dev.rayhan.spring_store.apis.category.CategoryService;
+import dev.rayhan.spring_store.apis.inventory.InventoryService;
 import dev.rayhan.spring_store.apis.product.dtos.CreateProductPayload;
+import dev.rayhan.spring_store.apis.product.dtos.PriceHistoryDto;
+import dev.rayhan.spring_store.apis.product.dtos.RelatedProductDto;
+import dev.rayhan.spring_store.apis.product.entities.ProductListing;
 import dev.rayhan.spring_store.apis.product.dtos.ProductListFilterRequestQueryParam;
 import dev.rayhan.spring_store.apis.product.dtos.UpdateProductPayload;
 import dev.rayhan.spring_store.apis.product.mappers.ProductMapper;
+import dev.rayhan.spring_store.apis.product.related.RelatedProductsIndex;
 import dev.rayhan.spring_store.apis.product.repositories.CategoryRepository;
+import dev.rayhan.spring_store.apis.product.repositories.PriceHistoryRepository;
+import dev.rayhan.spring_store.apis.product.repositories.ProductCountersRepository;
+import dev.rayhan.spring_store.apis.product.repositories.ProductListingRepository;
 import dev.rayhan.spring_store.apis.product.repositories.ProductRepository;
+import dev.rayhan.spring_store.common.PageSizeGuard;
 import dev.rayhan.spring_store.common.PaginationHelper;
+import dev.rayhan.spring_store.common.SingleFlight;
+import dev.rayhan.spring_store.common.TotalCountEstimator;
+import dev.rayhan.spring_store.common.cache.CacheRegions;
+import dev.rayhan.spring_store.common.dtos.PageResponse;
+import dev.rayhan.spring_store.common.dtos.ProductSortByColumn;
+import dev.rayhan.spring_store.common.dtos.TotalCount;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import dev.rayhan.spring_store.common.outbox.OutboxPublisher;
 import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
-import dev.rayhan.spring_store.apis.product.entities.Category;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
+@Observed(name = "store.product.service")
 class ProductService {
+  static final String PAGE_SIZE_ENDPOINT = "products";
+  // followers of a slow list query give up with 503 instead of piling up
+  private static final Duration LIST_MAX_WAIT = Duration.ofSeconds(5);
 
   private final ProductRepository productRepository;
+  private final ProductListingRepository productListingRepository;
+  private final ProductCountersRepository productCountersRepository;
+  private final PriceHistoryRepository priceHistoryRepository;
+  private final RelatedProductsIndex relatedProductsIndex;
   private final ProductMapper mapper;
   private final ProductMapper productMapper;
   private final CategoryRepository categoryRepository;
+  private final CategoryService categoryService;
+  private final InventoryService inventoryService;
+  private final PageSizeGuard pageSizeGuard;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+  private final OutboxPublisher outboxPublisher;
+  private final TieredCache cache;
+  private final SingleFlight singleFlight;
+  private final TotalCountEstimator totalCountEstimator;
 
-  ResponseEntity<List<ProductListDto>> getAllProducts(ProductListFilterRequestQueryParam filter) {
-    if (filter.getCategoryId() != null) {
-
-      var category = Category.builder().id(filter.getCategoryId()).build();
-      return ResponseEntity.ok(
-        productRepository.findAllByCategory(category, PaginationHelper.createPageable(
-            filter.getPage(),
-            filter.getLimit(),
-            filter.getSort(),
-            filter.getSortBy().toString()
-          )).stream()
-          .map(mapper::entityToProductListDto).toList()
-      );
+  ResponseEntity<PageResponse<ProductListDto>> getAllProducts(ProductListFilterRequestQueryParam filter) {
+    var limit = pageSizeGuard.resolveLimit(PAGE_SIZE_ENDPOINT, filter.getLimit());
+    var pageable = PaginationHelper.createPageable(
+      filter.getPage(),
+      limit,
+      filter.getSort(),
+      filter.getSortBy().toString()
+    );
+
+    // normalized after clamping so ?limit=500 and ?limit=100 share an entry
+    var subtreePath = subtreePathOf(filter);
+    var cacheKey = filter.getPage() + ":" + limit + ":" + filter.getSort() + ":" + filter.getSortBy() + ":" + filter.getCategoryId()
+      + (subtreePath != null ? ":subtree" : "");
+    // concurrent identical requests share one cache lookup and at most one query
+    PageResponse<ProductListDto> page = singleFlight.execute(CacheRegions.PRODUCT_LIST, cacheKey, LIST_MAX_WAIT, () ->
+      cache.get(CacheRegions.PRODUCT_LIST, cacheKey, cache.typeOf(PageResponse.class, ProductListDto.class), () -> {
+        // served from the product_listing read model, no join and no entity graph
+        var products = filter.getSortBy() == ProductSortByColumn.popularity
+          ? findSliceByPopularity(filter.getCategoryId(), subtreePath, pageable)
+          : subtreePath != null
+          ? productListingRepository.findSliceInCategorySubtree(subtreePath, pageable)
+          : filter.getCategoryId() != null
+          ? productListingRepository.findSliceByCategoryId(filter.getCategoryId(), pageable)
+          : productListingRepository.findSliceBy(pageable);
+        return PageResponse.of(products, mapper::listingToProductListDto);
+      }));
+
+    pageSizeGuard.recordServed(PAGE_SIZE_ENDPOINT, page.items().size());
+    if (filter.isWithTotal()) {
+      // totals are cached on their own so the cached page stays valid when only the count drifts
+      page = page.withTotal(subtreePath != null ? countSubtreeProducts(subtreePath) : countProducts(filter.getCategoryId()));
+    }
+    return ResponseEntity.ok(page);
+  }
+
+  private Slice<ProductListing> findSliceByPopularity(UUID categoryId, String subtreePath, Pageable pageable) {
+    var order = pageable.getSort().getOrderFor(ProductSortByColumn.popularity.name());
+    var byScore = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+      JpaSort.unsafe(order != null ? order.getDirection() : Sort.Direction.DESC, "pc.popularity"));
+    if (subtreePath != null) {
+      return productListingRepository.findSliceInCategorySubtreeByPopularity(subtreePath, byScore);
     }
+    return categoryId != null
+      ? productListingRepository.findSliceByCategoryIdByPopularity(categoryId, byScore)
+      : productListingRepository.findSliceByPopularity(byScore);
+  }
 
-    return ResponseEntity.ok(
-      productRepository.findAll(
-        PaginationHelper.createPageable(
-          filter.getPage(),
-          filter.getLimit(),
-          filter.getSort(),
-          filter.getSortBy().toString()
-        )
-      ).stream().map(productMapper::entityToProductListDto).toList()
+  /**
+   * Path prefix of the requested category from the cached tree, or null
+   * when the filter is not a subtree filter. An unknown category keeps the
+   * plain category_id filter, which simply matches nothing.
+   */
+  private String subtreePathOf(ProductListFilterRequestQueryParam filter) {
+    if (filter.getCategoryId() == null || !filter.isIncludeSubcategories()) {
+      return null;
+    }
+    return categoryService.tree().find(filter.getCategoryId()).map(CategoryNode::path).orElse(null);
+  }
+
+  private TotalCount countSubtreeProducts(String subtreePath) {
+    return totalCountEstimator.filteredTotal(
+      PAGE_SIZE_ENDPOINT,
+      "SELECT 1 FROM product_listing WHERE category_id IN (SELECT id FROM categories WHERE path LIKE ? || '%')",
+      new Object[]{subtreePath},
+      () -> productListingRepository.countInCategorySubtree(subtreePath)
     );
   }
 
+  private TotalCount countProducts(UUID categoryId) {
+    if (categoryId == null) {
+      return totalCountEstimator.tableTotal("product_listing", productListingRepository::count);
+    }
+    return totalCountEstimator.filteredTotal(
+      PAGE_SIZE_ENDPOINT,
+      "SELECT 1 FROM product_listing WHERE category_id = ?",
+      new Object[]{categoryId},
+      () -> productListingRepository.countByCategoryId(categoryId)
+    );
+  }
+
+  public ProductListDto getProduct(UUID id) {
+    return cache.get(CacheRegions.PRODUCT, id.toString(), cache.typeOf(ProductListDto.class), () ->
+      productRepository.findById(id)
+        .map(mapper::entityToProductListDto)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found")));
+  }
+
+  /**
+   * Ranked by the in-memory index; one query fills in the current names
+   * and prices, and products deleted since the last rebuild drop out.
+   */
+  @Transactional(readOnly = true)
+  public List<RelatedProductDto> getRelatedProducts(UUID id, int limit) {
+    var related = relatedProductsIndex.relatedTo(id, limit);
+    if (related.isEmpty()) {
+      return List.of();
+    }
+    var listings = productListingRepository.findAllById(related.stream().map(RelatedProductsIndex.Related::productId).toList())
+      .stream()
+      .collect(Collectors.toMap(ProductListing::getProductId, Function.identity()));
+    return related.stream()
+      .filter(partner -> listings.containsKey(partner.productId()))
+      .map(partner -> {
+        var listing = listings.get(partner.productId());
+        return new RelatedProductDto(listing.getProductId(), listing.getName(), listing.getPrice(), listing.getCategoryId(), partner.count());
+      })
+      .toList();
+  }
+
+  @Transactional(readOnly = true)
+  public PriceHistoryDto getPriceHistory(UUID id, int days) {
+    var product = productRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    var since = LocalDateTime.now().minusDays(days);
+    var changes = priceHistoryRepository.findChangesSince(id, since).stream()
+      .map(change -> new PriceHistoryDto.Change(change.getPreviousPrice(), change.getPrice(), change.getChangedAt()))
+      .toList();
+    return new PriceHistoryDto(id, product.getPrice(), days, priceHistoryRepository.findPriceAt(id, since), changes);
+  }
+
+  @Transactional(readOnly = true)
+  public void exportProducts(OutputStream outputStream) throws IOException {
+    var writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream);
+    try (var products = productRepository.streamAllWithCategory()) {
+      var iterator = products.iterator();
+      while (iterator.hasNext()) {
+        var product = iterator.next();
+        writer.write(mapper.entityToProductListDto(product));
+        // keep the persistence context from growing with the export
+        entityManager.detach(product);
+      }
+    }
+    writer.flush();
+  }
+
+  @Transactional
   public ProductListDto createProduct(CreateProductPayload payload) {
     var category = categoryRepository
       .findById(payload.getCategoryId())
@@ -61,14 +221,26 @@ class ProductService {
 
     var product = productMapper.createProductPayloadToEntity(payload);
     product.setCategory(category);
-    var createdProduct = productRepository.save(product);
-    return mapper.entityToProductListDto(createdProduct);
+    var createdProduct = productRepository.saveAndFlush(product);
+    if (payload.getStock() != null) {
+      inventoryService.setStock(createdProduct.getId(), payload.getStock(), 0);
+    }
+    productListingRepository.refresh(createdProduct.getId());
+    productCountersRepository.create(createdProduct.getId());
+    priceHistoryRepository.record(createdProduct.getId(), null, createdProduct.getPrice());
+    var dto = mapper.entityToProductListDto(createdProduct);
+    outboxPublisher.publish(ProductEvents.AGGREGATE, dto.getId(), ProductEvents.CREATED, dto);
+    cache.invalidateAfterCommit(CacheRegions.PRODUCT_LIST);
+    return dto;
   }
 
 
+  @Transactional
   public ProductListDto updateProduct(UUID id, UpdateProductPayload payload) {
     // TODO: sync using map struct
-    var product = productRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    // every column is written back, including a price this request did not change
+    var product = productRepository.findByIdForUpdate(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    var previousPrice = product.getPrice();
     mapper.syncUpdateProductPayloadWithEntity(payload, product);
 
 //    if (payload.getName() != null) {
@@ -85,12 +257,30 @@ class ProductService {
 //    }
 
 
-    var savedProduct = productRepository.save(product);
-    return mapper.entityToProductListDto(savedProduct);
+    var savedProduct = productRepository.saveAndFlush(product);
+    productListingRepository.refresh(id);
+    if (!Objects.equals(previousPrice, savedProduct.getPrice())) {
+      priceHistoryRepository.record(id, previousPrice, savedProduct.getPrice());
+    }
+    var dto = mapper.entityToProductListDto(savedProduct);
+    outboxPublisher.publish(ProductEvents.AGGREGATE, id, ProductEvents.UPDATED, dto);
+    evictProduct(id);
+    return dto;
   }
 
+  @Transactional
   public void deleteProduct(UUID id) {
     var product = productRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    // the product_listing row goes with it through ON DELETE CASCADE
     productRepository.delete(product);
+    outboxPublisher.publish(ProductEvents.AGGREGATE, id, ProductEvents.DELETED, Map.of("id", id));
+    evictProduct(id);
+  }
+
+  private void evictProduct(UUID id) {
+    cache.evictAfterCommit(CacheRegions.PRODUCT, id.toString());
+    cache.invalidateAfterCommit(CacheRegions.PRODUCT_LIST);
+    // cart totals are computed from current prices
+    cache.invalidateAfterCommit(CacheRegions.CART);
   }
 }
@@ -1,6 +1,7 @@
 package dev.rayhan.spring_store.apis.product.dtos;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -18,4 +19,8 @@ public class CreateProductPayload {
   @DecimalMin(value = "0.01", message = "Price must be at least 0.01")
   private double price;
   private UUID categoryId;
+
+  // leave out to sell the product without tracking stock
+  @Min(value = 0, message = "Stock must not be negative")
+  private Integer stock;
 }
@@ -0,0 +1,20 @@
+package dev.rayhan.spring_store.apis.product.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Current price, the price {@code days} ago ({@code null} when the product
+ * has no recorded price that old) and every change in between, newest first.
+ */
+public record PriceHistoryDto(
+        UUID productId,
+        Double price,
+        int days,
+        Double priceDaysAgo,
+        List<Change> changes
+) {
+    public record Change(Double previousPrice, Double price, LocalDateTime changedAt) {
+    }
+}
@@ -11,5 +11,6 @@ public class ProductListDto {
     private String name;
     private String description;
     private Double price;
-    private String categoryId;
+    private UUID categoryId;
+    private String categoryName;
 }
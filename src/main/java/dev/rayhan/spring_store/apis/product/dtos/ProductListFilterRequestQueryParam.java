@@ -11,5 +11,7 @@ import java.util.UUID;
 @Getter @Setter
 public class ProductListFilterRequestQueryParam extends BaseFilterRequestQueryParam {
     private UUID categoryId;
+    // with categoryId, also lists products of every descendant category
+    private boolean includeSubcategories;
     private ProductSortByColumn sortBy = ProductSortByColumn.createdAt;
 }
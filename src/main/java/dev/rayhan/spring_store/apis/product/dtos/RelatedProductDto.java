@@ -0,0 +1,15 @@
+package dev.rayhan.spring_store.apis.product.dtos;
+
+import java.util.UUID;
+
+/**
+ * A product bought together with the requested one, and in how many carts.
+ */
+public record RelatedProductDto(
+        UUID id,
+        String name,
+        Double price,
+        UUID categoryId,
+        int boughtTogether
+) {
+}
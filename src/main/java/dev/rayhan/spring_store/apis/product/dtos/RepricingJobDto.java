@@ -0,0 +1,27 @@
+package dev.rayhan.spring_store.apis.product.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk repricing job. {@code processed} counts products in
+ * finished chunks, {@code updated} the ones whose price actually changed.
+ */
+public record RepricingJobDto(
+  UUID id,
+  Status status,
+  int total,
+  int processed,
+  int updated,
+  int chunks,
+  int chunksDone,
+  int chunksFailed,
+  String error,
+  Instant createdAt,
+  Instant startedAt,
+  Instant finishedAt
+) {
+  public enum Status {
+    QUEUED, RUNNING, COMPLETED, FAILED
+  }
+}
@@ -0,0 +1,34 @@
+package dev.rayhan.spring_store.apis.product.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Changes every product matching the filters by {@code amount}: a
+ * percentage for {@code PERCENT}, price units for {@code ABSOLUTE}.
+ * Without filters the whole catalog is repriced.
+ */
+@Data
+public class RepricingPayload {
+  @NotNull(message = "Mode is required")
+  private Mode mode;
+
+  @NotNull(message = "Amount is required")
+  private Double amount;
+
+  private UUID categoryId;
+  private boolean includeSubcategories;
+
+  @PositiveOrZero
+  private Double minPrice;
+
+  @PositiveOrZero
+  private Double maxPrice;
+
+  public enum Mode {
+    PERCENT, ABSOLUTE
+  }
+}
@@ -17,14 +17,21 @@ import java.util.UUID;
 @Entity
 @Table(name = "categories")
 public class Category extends BaseEntity {
+    // assigned by CategoryService, the path has to contain it before the INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id")
     private UUID id;
 
     @Column(name = "name")
     private String name;
 
+    @Column(name = "parent_id")
+    private UUID parentId;
+
+    // "/<root id>/.../<own id>/", see CategoryService for how it is kept up to date
+    @Column(name = "path", nullable = false)
+    private String path;
+
     @OneToMany(mappedBy = "category")
     @Builder.Default
     @ToString.Exclude
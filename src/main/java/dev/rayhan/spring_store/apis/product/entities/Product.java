@@ -29,4 +29,8 @@ public class Product extends BaseEntity {
     @ManyToOne(cascade = {CascadeType.PERSIST})
     @JoinColumn(name = "category_id")
     private Category category;
+
+    // stock itself is only ever changed by conditional SQL in InventoryService
+    @Column(name = "stock_shards", insertable = false, updatable = false)
+    private Integer stockShards;
 }
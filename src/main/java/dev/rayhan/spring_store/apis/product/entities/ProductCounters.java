@@ -0,0 +1,37 @@
+package dev.rayhan.spring_store.apis.product.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of {@code product_counters}. Mapped so list queries can join it and
+ * sort by the score; only {@code PopularityCounters} and
+ * {@code ProductCountersRepository.create} write it.
+ */
+@Getter @NoArgsConstructor @ToString
+
+@Entity
+@Immutable
+@Table(name = "product_counters")
+public class ProductCounters {
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Column(name = "views")
+    private long views;
+
+    @Column(name = "add_to_carts")
+    private long addToCarts;
+
+    // decayed score in log2 space, see PopularityCounters
+    @Column(name = "popularity")
+    private double popularity;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package dev.rayhan.spring_store.apis.product.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Denormalized row of {@code product_listing}, the read model behind
+ * {@code GET /products/}. Only written through
+ * {@code ProductListingRepository.refresh}, never through this entity.
+ */
+@Getter @NoArgsConstructor @ToString
+
+@Entity
+@Immutable
+@Table(name = "product_listing")
+public class ProductListing {
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "price")
+    private Double price;
+
+    @Column(name = "category_id")
+    private UUID categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    // same names as on Product so ProductSortByColumn sorts both
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
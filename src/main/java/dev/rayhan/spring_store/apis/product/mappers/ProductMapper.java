@@ -3,16 +3,27 @@ package dev.rayhan.spring_store.apis.product.mappers;
 import dev.rayhan.spring_store.apis.product.dtos.CreateProductPayload;
 import dev.rayhan.spring_store.apis.product.dtos.UpdateProductPayload;
 import dev.rayhan.spring_store.apis.product.entities.Product;
+import dev.rayhan.spring_store.apis.product.entities.ProductListing;
 import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import dev.rayhan.spring_store.apis.product.reactive.ProductRow;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
   @Mapping(target = "categoryId", source = "category.id")
+  @Mapping(target = "categoryName", source = "category.name")
   ProductListDto entityToProductListDto(Product product);
 
+  @Mapping(target = "id", source = "productId")
+  ProductListDto listingToProductListDto(ProductListing listing);
+
+  @Mapping(target = "categoryName", ignore = true)
+  ProductListDto rowToProductListDto(ProductRow row);
+
+  @Mapping(target = "stockShards", ignore = true)
   Product createProductPayloadToEntity(CreateProductPayload createProductPayload);
 
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "stockShards", ignore = true)
   void syncUpdateProductPayloadWithEntity(UpdateProductPayload payload, @MappingTarget Product product);
 }
@@ -0,0 +1,208 @@
+package dev.rayhan.spring_store.apis.product.popularity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * View and add-to-cart counters per product.
+ * <p>
+ * Requests only bump a {@link LongAdder}, which stripes contended updates
+ * over several cells instead of retrying one CAS. Every
+ * {@code store.popularity.flush-interval} the deltas are drained and
+ * written in one statement that adds them to {@code product_counters},
+ * where {@code ?sortBy=popularity} reads the score through its own index.
+ * The score is not copied to {@code product_listing}: an indexed column
+ * that changes every flush would rule out HOT updates there.
+ * <p>
+ * The score decays with {@code half-life} without rewriting old rows: an
+ * event at time t weighs {@code w * 2^((t - EPOCH) / halfLife)}, so newer
+ * events simply weigh more and the ordering is the same as decaying every
+ * score. Scores are kept as log2 of that sum so they never overflow.
+ */
+@Slf4j
+@Component
+public class PopularityCounters {
+  static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+  private static final String FLUSH_SQL = """
+    WITH deltas AS (
+      SELECT * FROM unnest(?::uuid[], ?::bigint[], ?::bigint[], ?::float8[]) AS d(product_id, views, add_to_carts, score)
+    )
+    INSERT INTO product_counters AS pc (product_id, views, add_to_carts, popularity, updated_at)
+    SELECT d.product_id, d.views, d.add_to_carts, d.score, now()
+    -- deleted products are skipped
+    FROM deltas d JOIN products p ON p.id = d.product_id
+    -- rows are locked in id order: two nodes flushing at once queue instead of deadlocking
+    ORDER BY d.product_id
+    ON CONFLICT (product_id) DO UPDATE SET
+      views = pc.views + excluded.views,
+      add_to_carts = pc.add_to_carts + excluded.add_to_carts,
+      -- log2(2^a + 2^b) without leaving log space
+      popularity = GREATEST(pc.popularity, excluded.popularity) + CASE
+        WHEN abs(pc.popularity - excluded.popularity) > 50 THEN 0
+        ELSE ln(1 + power(2::float8, -abs(pc.popularity - excluded.popularity))) / ln(2)
+      END,
+      updated_at = now()
+    """;
+
+  private final Map<UUID, Counts> counts = new ConcurrentHashMap<>();
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final PopularityProperties properties;
+  private final Counter flushed;
+  private final Counter failed;
+  private final Timer flushTimer;
+
+  public PopularityCounters(
+    JdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    PopularityProperties properties,
+    MeterRegistry meterRegistry
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+    this.flushed = Counter.builder("store.popularity.flushed").register(meterRegistry);
+    this.failed = Counter.builder("store.popularity.flush.failed").register(meterRegistry);
+    this.flushTimer = Timer.builder("store.popularity.flush").register(meterRegistry);
+    Gauge.builder("store.popularity.tracked", counts, Map::size).register(meterRegistry);
+  }
+
+  public void recordView(UUID productId) {
+    add(productId, 1, 0);
+  }
+
+  public void recordAddToCart(UUID productId) {
+    add(productId, 0, 1);
+  }
+
+  @Scheduled(fixedDelayString = "${store.popularity.flush-interval:10s}")
+  public void flush() {
+    var batch = drain();
+    if (batch.isEmpty()) {
+      return;
+    }
+    // one lock order for every node flushing at the same time
+    batch.sort(Comparator.comparing(Delta::productId));
+
+    var now = Instant.now();
+    var ids = new UUID[batch.size()];
+    var views = new Long[batch.size()];
+    var addToCarts = new Long[batch.size()];
+    var scores = new Double[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      var delta = batch.get(i);
+      ids[i] = delta.productId;
+      views[i] = delta.views;
+      addToCarts[i] = delta.addToCarts;
+      scores[i] = score(delta.views * properties.getViewWeight() + delta.addToCarts * properties.getAddToCartWeight(), now);
+    }
+
+    try {
+      // a transaction of its own: with auto-commit off the pool would roll back a bare statement
+      flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(connection -> {
+        var statement = connection.prepareStatement(FLUSH_SQL);
+        statement.setArray(1, connection.createArrayOf("uuid", ids));
+        statement.setArray(2, connection.createArrayOf("int8", views));
+        statement.setArray(3, connection.createArrayOf("int8", addToCarts));
+        statement.setArray(4, connection.createArrayOf("float8", scores));
+        return statement;
+      })));
+      flushed.increment(batch.size());
+    } catch (DataAccessException | TransactionException e) {
+      // put the deltas back so the next flush retries them
+      batch.forEach(delta -> add(delta.productId, delta.views, delta.addToCarts));
+      failed.increment();
+      log.warn("Flushing popularity counters for {} products failed", batch.size(), e);
+    }
+  }
+
+  @PreDestroy
+  void flushOnShutdown() {
+    flush();
+  }
+
+  /**
+   * log2 of {@code weight * 2^((at - EPOCH) / halfLife)}.
+   */
+  double score(double weight, Instant at) {
+    double halfLives = (double) (at.toEpochMilli() - EPOCH.toEpochMilli()) / properties.getHalfLife().toMillis();
+    return halfLives + Math.log(weight) / Math.log(2);
+  }
+
+  List<Delta> drain() {
+    // keyed by product: a retired entry and its replacement can both hold counts in one pass
+    var batch = new HashMap<UUID, Delta>();
+    counts.forEach((productId, productCounts) -> {
+      if (productCounts.idle && productCounts.views.sum() == 0 && productCounts.addToCarts.sum() == 0) {
+        // quiet for two flushes: stop tracking. Increments that raced the removal are taken
+        // below, or moved to a fresh entry by add(), never both: sumThenReset hands every
+        // unit to exactly one caller.
+        productCounts.retired = true;
+        counts.remove(productId, productCounts);
+      }
+      long views = productCounts.views.sumThenReset();
+      long addToCarts = productCounts.addToCarts.sumThenReset();
+      if (views != 0 || addToCarts != 0) {
+        productCounts.idle = false;
+        batch.merge(productId, new Delta(productId, views, addToCarts), Delta::plus);
+      } else {
+        productCounts.idle = true;
+      }
+    });
+    return new ArrayList<>(batch.values());
+  }
+
+  private void add(UUID productId, long views, long addToCarts) {
+    var productCounts = countsOf(productId);
+    productCounts.views.add(views);
+    productCounts.addToCarts.add(addToCarts);
+    // drain() sets retired before its last sumThenReset, so an increment it may have missed
+    // always sees the flag here and is handed on to the live entry
+    while (productCounts.retired) {
+      views = productCounts.views.sumThenReset();
+      addToCarts = productCounts.addToCarts.sumThenReset();
+      productCounts = countsOf(productId);
+      productCounts.views.add(views);
+      productCounts.addToCarts.add(addToCarts);
+    }
+  }
+
+  private Counts countsOf(UUID productId) {
+    var productCounts = counts.get(productId);
+    return productCounts != null ? productCounts : counts.computeIfAbsent(productId, id -> new Counts());
+  }
+
+  private static final class Counts {
+    final LongAdder views = new LongAdder();
+    final LongAdder addToCarts = new LongAdder();
+    volatile boolean idle;
+    volatile boolean retired;
+  }
+
+  record Delta(UUID productId, long views, long addToCarts) {
+    Delta plus(Delta other) {
+      return new Delta(productId, views + other.views, addToCarts + other.addToCarts);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package dev.rayhan.spring_store.apis.product.popularity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.popularity")
+public class PopularityProperties {
+  private Duration flushInterval = Duration.ofSeconds(10);
+  // an event counts half as much after this long
+  private Duration halfLife = Duration.ofDays(3);
+  private double viewWeight = 1;
+  private double addToCartWeight = 5;
+}
@@ -0,0 +1,39 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only R2DBC view of the {@code products} table. Writes stay on the
+ * JPA {@code Product} entity.
+ */
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor
+
+@Table("products")
+public class ProductRow {
+  @Id
+  private UUID id;
+
+  @Column("name")
+  private String name;
+
+  @Column("description")
+  private String description;
+
+  @Column("price")
+  private Double price;
+
+  @Column("category_id")
+  private UUID categoryId;
+
+  @Column("created_at")
+  private LocalDateTime createdAt;
+
+  @Column("updated_at")
+  private LocalDateTime updatedAt;
+}
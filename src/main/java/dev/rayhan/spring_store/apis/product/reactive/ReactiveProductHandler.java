@@ -0,0 +1,119 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListFilterRequestQueryParam;
+import dev.rayhan.spring_store.apis.product.mappers.ProductMapper;
+import dev.rayhan.spring_store.common.PageSizeGuard;
+import dev.rayhan.spring_store.common.PaginationHelper;
+import dev.rayhan.spring_store.common.dtos.ProductSortByColumn;
+import dev.rayhan.spring_store.common.dtos.SortDirection;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@code ProductController.index}: same query
+ * parameters, same page size limits, same response body.
+ */
+@AllArgsConstructor
+class ReactiveProductHandler {
+  // shares the page size limits of the MVC endpoint
+  private static final String PAGE_SIZE_ENDPOINT = "products";
+
+  private final ReactiveProductRepository productRepository;
+  private final ProductMapper mapper;
+  private final PageSizeGuard pageSizeGuard;
+  private final Validator validator;
+
+  Mono<ServerResponse> index(ServerRequest request) {
+    // binding and the page size guard throw; deferred, that reaches the router's onError as a signal
+    return Mono.defer(() -> list(request));
+  }
+
+  private Mono<ServerResponse> list(ServerRequest request) {
+    var filter = bindFilter(request);
+
+    var violations = validator.validate(filter);
+    if (!violations.isEmpty()) {
+      var errors = new HashMap<String, String>();
+      violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+      return ServerResponse.badRequest().bodyValue(errors);
+    }
+
+    // the score lives in product_counters, which the reactive reads do not join
+    if (filter.getSortBy() == ProductSortByColumn.popularity) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sortBy=popularity is not supported here");
+    }
+    // subtree filters resolve paths through the servlet side's cached category tree
+    if (filter.isIncludeSubcategories()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "includeSubcategories is not supported here");
+    }
+
+    var pageable = PaginationHelper.createPageable(
+      filter.getPage(),
+      pageSizeGuard.resolveLimit(PAGE_SIZE_ENDPOINT, filter.getLimit()),
+      filter.getSort(),
+      filter.getSortBy().toString()
+    );
+
+    var rows = filter.getCategoryId() != null
+      ? productRepository.findAllByCategoryId(filter.getCategoryId(), pageable)
+      : productRepository.findAllBy(pageable);
+
+    var served = new AtomicInteger();
+    var products = rows
+      .map(mapper::rowToProductListDto)
+      .doOnNext(product -> served.incrementAndGet())
+      .doOnComplete(() -> pageSizeGuard.recordServed(PAGE_SIZE_ENDPOINT, served.get()));
+    return ServerResponse.ok().body(products, ProductListDto.class);
+  }
+
+  Mono<ServerResponse> handleError(Throwable error, ServerRequest request) {
+    var status = error instanceof ResponseStatusException statusException
+      ? statusException.getStatusCode()
+      : HttpStatus.INTERNAL_SERVER_ERROR;
+    var reason = error instanceof ResponseStatusException statusException
+      ? statusException.getReason()
+      : "Internal server error";
+
+    var errorBody = new LinkedHashMap<String, Object>();
+    errorBody.put("timestamp", Instant.now());
+    errorBody.put("status", status.value());
+    errorBody.put("error", reason);
+    errorBody.put("path", request.path());
+    return ServerResponse.status(status).bodyValue(errorBody);
+  }
+
+  private static ProductListFilterRequestQueryParam bindFilter(ServerRequest request) {
+    var filter = new ProductListFilterRequestQueryParam();
+    param(request, "page", Integer::valueOf).ifPresent(filter::setPage);
+    param(request, "limit", Integer::valueOf).ifPresent(filter::setLimit);
+    param(request, "sort", SortDirection::valueOf).ifPresent(filter::setSort);
+    param(request, "sortBy", ProductSortByColumn::valueOf).ifPresent(filter::setSortBy);
+    param(request, "categoryId", UUID::fromString).ifPresent(filter::setCategoryId);
+    param(request, "includeSubcategories", Boolean::valueOf).ifPresent(filter::setIncludeSubcategories);
+    return filter;
+  }
+
+  private static <T> Optional<T> param(ServerRequest request, String name, Function<String, T> parser) {
+    return request.queryParam(name).filter(value -> !value.isBlank()).map(value -> {
+      try {
+        return parser.apply(value);
+      } catch (IllegalArgumentException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for " + name);
+      }
+    });
+  }
+}
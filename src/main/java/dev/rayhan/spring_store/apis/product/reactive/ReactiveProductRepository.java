@@ -0,0 +1,13 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, UUID> {
+  Flux<ProductRow> findAllBy(Pageable pageable);
+
+  Flux<ProductRow> findAllByCategoryId(UUID categoryId, Pageable pageable);
+}
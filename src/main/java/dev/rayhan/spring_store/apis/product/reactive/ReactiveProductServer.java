@@ -0,0 +1,86 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.apis.product.mappers.ProductMapper;
+import dev.rayhan.spring_store.common.PageSizeGuard;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Serves the reactive product reads on a second port next to the MVC app.
+ * The application itself stays a servlet app; this is a plain Reactor
+ * Netty server, so it has none of the servlet filters (security, rate
+ * limit, SQL budget) in front of it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "store.reactive", name = "enabled", havingValue = "true")
+class ReactiveProductServer implements SmartLifecycle {
+  private final ReactiveProperties properties;
+  private final RouterFunction<ServerResponse> router;
+  private final HandlerStrategies strategies;
+  private volatile DisposableServer server;
+
+  ReactiveProductServer(
+    ReactiveProperties properties,
+    ReactiveProductRepository productRepository,
+    ProductMapper mapper,
+    PageSizeGuard pageSizeGuard,
+    Validator validator,
+    ObjectMapper objectMapper
+  ) {
+    this.properties = properties;
+    var handler = new ReactiveProductHandler(productRepository, mapper, pageSizeGuard, validator);
+    this.router = router(handler);
+    this.strategies = HandlerStrategies.builder()
+      .codecs(codecs -> {
+        codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+        codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+      })
+      .build();
+  }
+
+  static RouterFunction<ServerResponse> router(ReactiveProductHandler handler) {
+    return RouterFunctions.route()
+      .GET("/products/", handler::index)
+      .onError(Throwable.class, handler::handleError)
+      .build();
+  }
+
+  @Override
+  public void start() {
+    var adapter = new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(router, strategies));
+    server = HttpServer.create()
+      .port(properties.getPort())
+      // reactor.netty.http.server.* meters, tagged with a fixed uri to keep cardinality down
+      .metrics(true, uri -> "/products/")
+      .handle(adapter)
+      .bindNow();
+    log.info("Reactive product API listening on port {}", server.port());
+  }
+
+  @Override
+  public void stop() {
+    if (server != null) {
+      server.disposeNow();
+      server = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return server != null;
+  }
+}
@@ -0,0 +1,12 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "store.reactive")
+public class ReactiveProperties {
+  // serves the reactive product reads on their own Netty port
+  private boolean enabled = false;
+  private int port = 8081;
+}
@@ -0,0 +1,186 @@
+package dev.rayhan.spring_store.apis.product.related;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts how often two products share a cart and keeps the top K partners
+ * of every product.
+ * <p>
+ * Products are dense ints ({@code 0..productCount}), baskets are sorted,
+ * distinct {@code int[]}s. The work is split by the <em>first</em> product
+ * of a pair: shard {@code s} counts the pairs {@code (a, b)} with
+ * {@code a % shards == s} across all baskets. A shard therefore owns every
+ * partner count of its products and ranks them on its own, and shards never
+ * merge maps; the price is that every shard reads all baskets, which are
+ * just int arrays.
+ */
+final class CoOccurrenceCounter {
+  private final int topK;
+  private final int minCount;
+
+  CoOccurrenceCounter(int topK, int minCount) {
+    this.topK = topK;
+    this.minCount = minCount;
+  }
+
+  Result count(List<int[]> baskets, int productCount, ForkJoinPool pool) {
+    int shards = pool.getParallelism();
+    var related = new int[productCount][];
+    var counts = new int[productCount][];
+    var stats = pool.invoke(new ShardTask(baskets, productCount, shards, 0, shards, related, counts));
+    return new Result(related, counts, stats.pairs, stats.peakBytes);
+  }
+
+  /**
+   * {@code related[p]} lists the partners of product {@code p}, most
+   * frequent first, with their counts in {@code counts[p]}; both are
+   * {@code null} for products without partners.
+   */
+  record Result(int[][] related, int[][] counts, long pairs, long peakBytes) {
+  }
+
+  private record Stats(long pairs, long peakBytes) {
+    Stats plus(Stats other) {
+      // shards run side by side, so their maps are alive at the same time
+      return new Stats(pairs + other.pairs, peakBytes + other.peakBytes);
+    }
+  }
+
+  private final class ShardTask extends RecursiveTask<Stats> {
+    private final List<int[]> baskets;
+    private final int productCount;
+    private final int shards;
+    private final int from;
+    private final int to;
+    private final int[][] related;
+    private final int[][] counts;
+
+    ShardTask(List<int[]> baskets, int productCount, int shards, int from, int to, int[][] related, int[][] counts) {
+      this.baskets = baskets;
+      this.productCount = productCount;
+      this.shards = shards;
+      this.from = from;
+      this.to = to;
+      this.related = related;
+      this.counts = counts;
+    }
+
+    @Override
+    protected Stats compute() {
+      if (to - from > 1) {
+        int mid = (from + to) >>> 1;
+        var left = new ShardTask(baskets, productCount, shards, from, mid, related, counts);
+        left.fork();
+        var right = new ShardTask(baskets, productCount, shards, mid, to, related, counts).compute();
+        return left.join().plus(right);
+      }
+      return countShard(from);
+    }
+
+    private Stats countShard(int shard) {
+      var pairs = new LongIntHashMap(1 << 16);
+      for (var basket : baskets) {
+        for (int a : basket) {
+          if (a % shards != shard) {
+            continue;
+          }
+          long high = (long) a << 32;
+          for (int b : basket) {
+            if (a != b) {
+              pairs.addTo(high | b, 1);
+            }
+          }
+        }
+      }
+
+      // products a of this shard are a = shard + i * shards
+      var top = new TopK[(productCount - shard + shards - 1) / shards];
+      pairs.forEach((key, count) -> {
+        if (count < minCount) {
+          return;
+        }
+        int a = (int) (key >>> 32);
+        int local = a / shards;
+        if (top[local] == null) {
+          top[local] = new TopK(topK);
+        }
+        top[local].offer((int) key, count);
+      });
+      for (int i = 0; i < top.length; i++) {
+        if (top[i] != null) {
+          int a = shard + i * shards;
+          top[i].sort();
+          related[a] = top[i].ids();
+          counts[a] = top[i].counts();
+        }
+      }
+      return new Stats(pairs.size(), pairs.footprintBytes());
+    }
+  }
+
+  /**
+   * Bounded set of the K highest counts, replacing the minimum when full.
+   * K is small, so a linear scan beats a heap here.
+   */
+  private static final class TopK {
+    private final int[] ids;
+    private final int[] counts;
+    private int size;
+
+    TopK(int k) {
+      this.ids = new int[k];
+      this.counts = new int[k];
+    }
+
+    void offer(int id, int count) {
+      if (size < ids.length) {
+        ids[size] = id;
+        counts[size++] = count;
+        return;
+      }
+      // the worst entry is the lowest count, and among those the highest id,
+      // so the kept set does not depend on hash map iteration order
+      int worst = 0;
+      for (int i = 1; i < size; i++) {
+        if (isWorse(counts[i], ids[i], counts[worst], ids[worst])) {
+          worst = i;
+        }
+      }
+      if (isWorse(counts[worst], ids[worst], count, id)) {
+        ids[worst] = id;
+        counts[worst] = count;
+      }
+    }
+
+    int[] ids() {
+      return Arrays.copyOf(ids, size);
+    }
+
+    int[] counts() {
+      return Arrays.copyOf(counts, size);
+    }
+
+    private static boolean isWorse(int count, int id, int otherCount, int otherId) {
+      return count < otherCount || (count == otherCount && id > otherId);
+    }
+
+    // insertion sort, most frequent first; ties keep the lower product index first
+    void sort() {
+      for (int i = 1; i < size; i++) {
+        int id = ids[i];
+        int count = counts[i];
+        int j = i - 1;
+        while (j >= 0 && isWorse(counts[j], ids[j], count, id)) {
+          ids[j + 1] = ids[j];
+          counts[j + 1] = counts[j];
+          j--;
+        }
+        ids[j + 1] = id;
+        counts[j + 1] = count;
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package dev.rayhan.spring_store.apis.product.related;
+
+/**
+ * Open-addressing {@code long -> int} counter map with linear probing.
+ * Keys and values sit in two flat arrays, so counting millions of pairs
+ * allocates no {@code Long}/{@code Integer} boxes and no entry objects.
+ * Not thread safe; every fork-join task owns its own map.
+ */
+final class LongIntHashMap {
+  private static final long EMPTY = 0L;
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+  private int resizeAt;
+  // key 0 marks empty slots, so its count is kept on the side
+  private boolean hasZeroKey;
+  private int zeroValue;
+
+  LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  void addTo(long key, int delta) {
+    if (key == EMPTY) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      zeroValue += delta;
+      return;
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        values[slot] += delta;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = delta;
+    if (++size >= resizeAt) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  int get(long key) {
+    if (key == EMPTY) {
+      return hasZeroKey ? zeroValue : 0;
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Bytes held by the backing arrays, for the job's memory report.
+   */
+  long footprintBytes() {
+    return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+  }
+
+  void forEach(Consumer consumer) {
+    if (hasZeroKey) {
+      consumer.accept(EMPTY, zeroValue);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != EMPTY) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private void rehash(int capacity) {
+    var oldKeys = keys;
+    var oldValues = values;
+    allocate(capacity);
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = mix(oldKeys[i]) & mask;
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  // murmur3 finalizer: pair keys differ mostly in their low bits
+  private static int mix(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  @FunctionalInterface
+  interface Consumer {
+    void accept(long key, int value);
+  }
+}
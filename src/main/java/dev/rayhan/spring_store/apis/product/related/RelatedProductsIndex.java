@@ -0,0 +1,184 @@
+package dev.rayhan.spring_store.apis.product.related;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory "frequently bought together" index, rebuilt from
+ * {@code cart_items} by a scheduled batch job and swapped in whole, so
+ * reads never see a half-built index and never touch the database.
+ * <p>
+ * The job streams {@code cart_items} ordered by cart in a read-only
+ * transaction (so it runs on a replica when routing is on), turns every
+ * cart into a sorted {@code int[]} of product indexes and hands them to
+ * {@link CoOccurrenceCounter}.
+ */
+@Slf4j
+@Component
+public class RelatedProductsIndex {
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final RelatedProductsProperties properties;
+  private final Timer jobTimer;
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+  private volatile JobReport lastReport = new JobReport(0, 0, 0, 0, 0, 0);
+
+  public RelatedProductsIndex(
+    JdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    RelatedProductsProperties properties,
+    MeterRegistry meterRegistry
+  ) {
+    // own template: the fetch size makes pgjdbc stream the cursor instead of buffering every row
+    this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+    this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    this.readOnlyTransaction.setReadOnly(true);
+    this.properties = properties;
+    this.jobTimer = Timer.builder("store.related.job").register(meterRegistry);
+    Gauge.builder("store.related.cart.lines", this, index -> index.lastReport.lines()).register(meterRegistry);
+    Gauge.builder("store.related.pairs", this, index -> index.lastReport.pairs()).register(meterRegistry);
+    Gauge.builder("store.related.products", this, index -> index.snapshot.related.size()).register(meterRegistry);
+    Gauge.builder("store.related.job.peak.bytes", this, index -> index.lastReport.peakBytes()).register(meterRegistry);
+  }
+
+  /**
+   * Partners of {@code productId}, most frequent first.
+   */
+  public List<Related> relatedTo(UUID productId, int limit) {
+    var related = snapshot.related.getOrDefault(productId, List.of());
+    return related.size() <= limit ? related : related.subList(0, limit);
+  }
+
+  @Scheduled(
+    initialDelayString = "${store.related.initial-delay:30s}",
+    fixedDelayString = "${store.related.interval:6h}"
+  )
+  public void rebuild() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    long started = System.nanoTime();
+    var baskets = readOnlyTransaction.execute(status -> loadBaskets());
+    long loaded = System.nanoTime();
+
+    int parallelism = properties.getParallelism() > 0
+      ? properties.getParallelism()
+      : Runtime.getRuntime().availableProcessors();
+    // own pool: the common pool is shared with parallel streams and the web tier
+    var pool = new ForkJoinPool(parallelism);
+    CoOccurrenceCounter.Result result;
+    try {
+      result = new CoOccurrenceCounter(properties.getTopK(), properties.getMinCount())
+        .count(baskets.carts, baskets.products.size(), pool);
+    } finally {
+      pool.shutdown();
+    }
+    snapshot = Snapshot.of(baskets.products, result);
+    long finished = System.nanoTime();
+    jobTimer.record(finished - started, TimeUnit.NANOSECONDS);
+
+    lastReport = new JobReport(baskets.lines, baskets.carts.size(), result.pairs(), result.peakBytes(),
+      (loaded - started) / 1_000_000, (finished - loaded) / 1_000_000);
+    log.info("Related products rebuilt: {} cart lines in {} carts, {} product pairs, {} products with partners, "
+        + "load {} ms, count {} ms on {} threads, pair maps {} MB, heap used {} MB",
+      baskets.lines, baskets.carts.size(), result.pairs(), snapshot.related.size(),
+      lastReport.loadMillis(), lastReport.countMillis(), parallelism,
+      result.peakBytes() >> 20, usedHeap() >> 20);
+  }
+
+  private Baskets loadBaskets() {
+    var baskets = new Baskets(properties.getMaxBasketSize());
+    jdbcTemplate.query("SELECT cart_id, product_id FROM cart_items ORDER BY cart_id",
+      (RowCallbackHandler) rs -> baskets.accept(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+    baskets.finish();
+    return baskets;
+  }
+
+  private static long usedHeap() {
+    var runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  public record Related(UUID productId, int count) {
+  }
+
+  record JobReport(long lines, long carts, long pairs, long peakBytes, long loadMillis, long countMillis) {
+  }
+
+  private static final class Baskets {
+    private final int maxBasketSize;
+    // UUIDs are boxed once per product, never per line or pair
+    private final Map<UUID, Integer> indexes = new HashMap<>();
+    private final List<UUID> products = new ArrayList<>();
+    private final List<int[]> carts = new ArrayList<>();
+    private long lines;
+    private UUID currentCart;
+    private int[] cart = new int[16];
+    private int size;
+
+    Baskets(int maxBasketSize) {
+      this.maxBasketSize = maxBasketSize;
+    }
+
+    void accept(UUID cartId, UUID productId) {
+      if (!cartId.equals(currentCart)) {
+        finish();
+        currentCart = cartId;
+      }
+      if (size == cart.length) {
+        cart = Arrays.copyOf(cart, size << 1);
+      }
+      cart[size++] = indexes.computeIfAbsent(productId, id -> {
+        products.add(id);
+        return products.size() - 1;
+      });
+      lines++;
+    }
+
+    void finish() {
+      if (size >= 2 && size <= maxBasketSize) {
+        var basket = Arrays.copyOf(cart, size);
+        Arrays.sort(basket);
+        carts.add(Arrays.stream(basket).distinct().toArray());
+      }
+      size = 0;
+    }
+  }
+
+  private record Snapshot(Map<UUID, List<Related>> related) {
+    static final Snapshot EMPTY = new Snapshot(Map.of());
+
+    static Snapshot of(List<UUID> products, CoOccurrenceCounter.Result result) {
+      var related = new HashMap<UUID, List<Related>>();
+      for (int p = 0; p < products.size(); p++) {
+        var partners = result.related()[p];
+        if (partners == null) {
+          continue;
+        }
+        var list = new ArrayList<Related>(partners.length);
+        for (int i = 0; i < partners.length; i++) {
+          list.add(new Related(products.get(partners[i]), result.counts()[p][i]));
+        }
+        related.put(products.get(p), List.copyOf(list));
+      }
+      return new Snapshot(Map.copyOf(related));
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package dev.rayhan.spring_store.apis.product.related;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "store.related")
+public class RelatedProductsProperties {
+  private boolean enabled = true;
+  // partners kept per product
+  private int topK = 20;
+  // pairs seen in fewer carts than this are noise
+  private int minCount = 2;
+  // bigger carts are bulk orders, and cost O(n^2) pairs each
+  private int maxBasketSize = 50;
+  private int fetchSize = 10_000;
+  // 0 uses one shard per available processor
+  private int parallelism = 0;
+}
@@ -1,9 +1,36 @@
 package dev.rayhan.spring_store.apis.product.repositories;
 
+import dev.rayhan.spring_store.apis.category.CategoryNode;
 import dev.rayhan.spring_store.apis.product.entities.Category;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CategoryRepository extends CrudRepository<Category, UUID> {
-}
\ No newline at end of file
+
+    @Query("select new dev.rayhan.spring_store.apis.category.CategoryNode(c.id, c.name, c.parentId, c.path) from Category c")
+    List<CategoryNode> findAllNodes();
+
+    boolean existsByParentId(UUID parentId);
+
+    /**
+     * Swaps the {@code oldPrefix} of every descendant path for
+     * {@code newPrefix} in one statement; the moved category itself is
+     * updated through the entity.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE categories
+            SET path = :newPrefix || substr(path, length(:oldPrefix) + 1), updated_at = now()
+            WHERE path LIKE :oldPrefix || '%' AND path <> :oldPrefix
+            """)
+    int rewriteDescendantPaths(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
+    // serializes tree writes so two concurrent moves cannot interleave their path rewrites
+    @Query(nativeQuery = true, value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('categories'))) AS lock")
+    int lockTree();
+}
@@ -0,0 +1,58 @@
+package dev.rayhan.spring_store.apis.product.repositories;
+
+import dev.rayhan.spring_store.apis.product.entities.Product;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@code price_history} is range partitioned by month on {@code changed_at}.
+ * Every read bounds {@code changed_at} so Postgres only visits the
+ * partitions that can hold matching rows.
+ */
+public interface PriceHistoryRepository extends Repository<Product, UUID> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO price_history (product_id, previous_price, price, changed_at)
+            VALUES (:productId, :previousPrice, :price, now())
+            """)
+    void record(
+            @Param("productId") UUID productId,
+            @Param("previousPrice") Double previousPrice,
+            @Param("price") Double price
+    );
+
+    /**
+     * Price in effect at {@code at}. Partitions after {@code at} are
+     * pruned and the ordered append stops at the first partition with a
+     * row, so this is usually one index probe.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT price FROM price_history
+            WHERE product_id = :productId AND changed_at <= :at
+            ORDER BY changed_at DESC
+            LIMIT 1
+            """)
+    Double findPriceAt(@Param("productId") UUID productId, @Param("at") LocalDateTime at);
+
+    @Query(nativeQuery = true, value = """
+            SELECT previous_price AS previousPrice, price, changed_at AS changedAt FROM price_history
+            WHERE product_id = :productId AND changed_at > :since
+            ORDER BY changed_at DESC
+            """)
+    List<PriceChange> findChangesSince(@Param("productId") UUID productId, @Param("since") LocalDateTime since);
+
+    interface PriceChange {
+        Double getPreviousPrice();
+
+        Double getPrice();
+
+        LocalDateTime getChangedAt();
+    }
+}
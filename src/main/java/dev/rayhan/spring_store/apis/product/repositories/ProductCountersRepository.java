@@ -0,0 +1,16 @@
+package dev.rayhan.spring_store.apis.product.repositories;
+
+import dev.rayhan.spring_store.apis.product.entities.ProductCounters;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface ProductCountersRepository extends Repository<ProductCounters, UUID> {
+    // every product gets a row up front, so the popularity sort can inner join
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO product_counters (product_id) VALUES (:productId)")
+    int create(@Param("productId") UUID productId);
+}
@@ -0,0 +1,87 @@
+package dev.rayhan.spring_store.apis.product.repositories;
+
+import dev.rayhan.spring_store.apis.product.entities.ProductListing;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface ProductListingRepository extends JpaRepository<ProductListing, UUID> {
+
+    Slice<ProductListing> findSliceBy(Pageable pageable);
+
+    Slice<ProductListing> findSliceByCategoryId(UUID categoryId, Pageable pageable);
+
+    long countByCategoryId(UUID categoryId);
+
+    boolean existsByCategoryId(UUID categoryId);
+
+    /**
+     * Products of every category whose path starts with {@code pathPrefix},
+     * i.e. a category and all of its descendants. Paths only hold UUIDs and
+     * slashes, so the prefix needs no LIKE escaping.
+     */
+    @Query("""
+            select l from ProductListing l
+            where l.categoryId in (select c.id from Category c where c.path like concat(:pathPrefix, '%'))
+            """)
+    Slice<ProductListing> findSliceInCategorySubtree(@Param("pathPrefix") String pathPrefix, Pageable pageable);
+
+    @Query("""
+            select count(l) from ProductListing l
+            where l.categoryId in (select c.id from Category c where c.path like concat(:pathPrefix, '%'))
+            """)
+    long countInCategorySubtree(@Param("pathPrefix") String pathPrefix);
+
+    /**
+     * Listing rows by popularity. The score lives in {@code product_counters},
+     * where it changes every flush without touching the indexes of
+     * {@code product_listing}. Callers sort with
+     * {@code JpaSort.unsafe("pc.popularity")}, which walks
+     * {@code product_counters_popularity_idx}.
+     */
+    @Query("select l from ProductListing l join ProductCounters pc on pc.productId = l.productId")
+    Slice<ProductListing> findSliceByPopularity(Pageable pageable);
+
+    @Query("""
+            select l from ProductListing l join ProductCounters pc on pc.productId = l.productId
+            where l.categoryId = :categoryId
+            """)
+    Slice<ProductListing> findSliceByCategoryIdByPopularity(@Param("categoryId") UUID categoryId, Pageable pageable);
+
+    @Query("""
+            select l from ProductListing l join ProductCounters pc on pc.productId = l.productId
+            where l.categoryId in (select c.id from Category c where c.path like concat(:pathPrefix, '%'))
+            """)
+    Slice<ProductListing> findSliceInCategorySubtreeByPopularity(@Param("pathPrefix") String pathPrefix, Pageable pageable);
+
+    // product_listing.category_name is a copy; renames rewrite it in place
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE product_listing SET category_name = :name WHERE category_id = :categoryId")
+    int renameCategory(@Param("categoryId") UUID categoryId, @Param("name") String name);
+
+    /**
+     * Rebuilds the listing row of one product from {@code products} and
+     * {@code categories}. Deleted products drop out through the cascading FK.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO product_listing (product_id, name, description, price, category_id, category_name, created_at, updated_at)
+            SELECT p.id, p.name, p.description, p.price, p.category_id, c.name, p.created_at, p.updated_at
+            FROM products p JOIN categories c ON c.id = p.category_id
+            WHERE p.id = :productId
+            ON CONFLICT (product_id) DO UPDATE SET
+              name = excluded.name,
+              description = excluded.description,
+              price = excluded.price,
+              category_id = excluded.category_id,
+              category_name = excluded.category_name,
+              created_at = excluded.created_at,
+              updated_at = excluded.updated_at
+            """)
+    int refresh(@Param("productId") UUID productId);
+}
@@ -1,16 +1,39 @@
 package dev.rayhan.spring_store.apis.product.repositories;
 
-import dev.rayhan.spring_store.apis.product.entities.Category;
 import dev.rayhan.spring_store.apis.product.entities.Product;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
 
-    List<Product> findAllByCategory(Category category, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.category")
+    Stream<Product> streamAllWithCategory();
+
+    /**
+     * Takes the same row lock as a repricing chunk, so a read-modify-write
+     * of the whole row waits for a running chunk instead of writing back
+     * the price it replaced.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") UUID id);
     
 //    @Query(value = "SELECT p.* FROM products p WHERE p.price BETWEEN :min AND :max", nativeQuery = true)
 //    public List<Product> getProductsWithinPriceRange(
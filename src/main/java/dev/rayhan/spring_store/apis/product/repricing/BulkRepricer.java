@@ -0,0 +1,361 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import dev.rayhan.spring_store.apis.category.CategoryNode;
+import dev.rayhan.spring_store.apis.category.CategoryService;
+import dev.rayhan.spring_store.apis.product.ProductEvents;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingJobDto;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingJobDto.Status;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingPayload;
+import dev.rayhan.spring_store.common.cache.CacheRegions;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import dev.rayhan.spring_store.common.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background bulk repricing. A job selects the target ids once, splits
+ * them into chunks and applies the chunks on a bounded pool, each one in
+ * its own transaction:
+ * <ol>
+ *   <li>lock and read the current prices with one {@code SELECT ... FOR UPDATE}</li>
+ *   <li>one JDBC batch each for {@code products}, {@code product_listing} and {@code price_history}</li>
+ *   <li>one outbox event and one invalidation per cache region</li>
+ * </ol>
+ * A job is not atomic: chunks that committed stay committed when a later
+ * one fails, and the job reports the failed chunk count; chunks that had
+ * not started at shutdown count as failed. Job state lives on the node
+ * that accepted the job.
+ */
+@Slf4j
+@Component
+public class BulkRepricer {
+  private static final String LOCK_SQL = "SELECT id, price FROM products WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+  private static final String UPDATE_PRODUCT_SQL = "UPDATE products SET price = ?, updated_at = now() WHERE id = ?";
+  private static final String UPDATE_LISTING_SQL = "UPDATE product_listing SET price = ?, updated_at = now() WHERE product_id = ?";
+  private static final String INSERT_HISTORY_SQL =
+    "INSERT INTO price_history (product_id, previous_price, price, changed_at) VALUES (?, ?, ?, now())";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate selectTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CategoryService categoryService;
+  private final OutboxPublisher outboxPublisher;
+  private final TieredCache cache;
+  private final RepricingProperties properties;
+  private final ThreadPoolExecutor jobExecutor;
+  private final ThreadPoolExecutor chunkExecutor;
+  private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+  private final Counter updatedProducts;
+  private final Counter failedChunks;
+  private final Timer chunkTimer;
+
+  public BulkRepricer(
+    JdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    CategoryService categoryService,
+    OutboxPublisher outboxPublisher,
+    TieredCache cache,
+    RepricingProperties properties,
+    MeterRegistry meterRegistry
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    // own template: the fetch size makes pgjdbc stream the selected ids instead of buffering the result
+    this.selectTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.selectTemplate.setFetchSize(properties.getFetchSize());
+    this.transactionTemplate = transactionTemplate;
+    this.categoryService = categoryService;
+    this.outboxPublisher = outboxPublisher;
+    this.cache = cache;
+    this.properties = properties;
+    // one job at a time; the queue bounds how many can wait behind it
+    this.jobExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(properties.getMaxQueuedJobs()),
+      Thread.ofPlatform().daemon().name("repricing-job-", 0).factory());
+    // a full queue makes the job thread apply the next chunk itself, which throttles submission
+    this.chunkExecutor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(), 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(properties.getParallelism()),
+      Thread.ofPlatform().daemon().name("repricing-chunk-", 0).factory(),
+      (task, executor) -> {
+        if (executor.isShutdown()) {
+          ((ChunkTask) task).reject();
+        } else {
+          task.run();
+        }
+      });
+    this.updatedProducts = Counter.builder("store.repricing.products.updated").register(meterRegistry);
+    this.failedChunks = Counter.builder("store.repricing.chunks.failed").register(meterRegistry);
+    this.chunkTimer = Timer.builder("store.repricing.chunk").register(meterRegistry);
+  }
+
+  public RepricingJobDto submit(RepricingPayload payload) {
+    if (payload.getMode() == RepricingPayload.Mode.PERCENT && payload.getAmount() <= -100) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A percentage change must be above -100");
+    }
+    if (payload.getMinPrice() != null && payload.getMaxPrice() != null && payload.getMinPrice() > payload.getMaxPrice()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not be above maxPrice");
+    }
+    var rule = payload.getMode() == RepricingPayload.Mode.PERCENT
+      ? PriceRule.percent(payload.getAmount(), payload.getMinPrice(), payload.getMaxPrice())
+      : PriceRule.absolute(Math.round(payload.getAmount()), payload.getMinPrice(), payload.getMaxPrice());
+    var selection = selectionFor(payload);
+    return start(rule, () -> selectIds(selection));
+  }
+
+  public RepricingJobDto submitPriceList(String csv) {
+    var prices = PriceListCsv.parse(csv, properties.getMaxCsvRows());
+    var ids = List.copyOf(prices.keySet());
+    return start(PriceRule.priceList(prices), () -> ids);
+  }
+
+  public Optional<RepricingJobDto> find(UUID jobId) {
+    return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    // an interrupted chunk rolls back; the ones before it stay applied
+    jobExecutor.shutdownNow();
+    // chunks that never started count as failed, so the job thread stops waiting for them
+    chunkExecutor.shutdownNow().forEach(task -> ((ChunkTask) task).reject());
+  }
+
+  private RepricingJobDto start(PriceRule rule, IdSource ids) {
+    forgetFinishedJobs();
+    var job = new Job(UUID.randomUUID());
+    jobs.put(job.id, job);
+    try {
+      jobExecutor.execute(() -> run(job, rule, ids));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.id);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many repricing jobs queued");
+    }
+    return job.toDto();
+  }
+
+  private void run(Job job, PriceRule rule, IdSource source) {
+    job.startedAt = Instant.now();
+    job.status = Status.RUNNING;
+    try {
+      var ids = source.ids();
+      var chunks = new ArrayList<List<UUID>>();
+      for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+        chunks.add(ids.subList(from, Math.min(ids.size(), from + properties.getChunkSize())));
+      }
+      job.total = ids.size();
+      job.chunks = chunks.size();
+
+      var futures = new CompletableFuture<?>[chunks.size()];
+      for (int i = 0; i < futures.length; i++) {
+        var task = new ChunkTask(job, chunks.get(i), rule);
+        futures[i] = task.done;
+        chunkExecutor.execute(task);
+      }
+      CompletableFuture.allOf(futures).join();
+
+      job.status = job.chunksFailed.get() == 0 ? Status.COMPLETED : Status.FAILED;
+      log.info("Repricing job {} finished: {} of {} products updated, {} of {} chunks failed",
+        job.id, job.updated.get(), job.total, job.chunksFailed.get(), job.chunks);
+    } catch (RuntimeException e) {
+      job.status = Status.FAILED;
+      job.error = e.getMessage();
+      log.warn("Repricing job {} failed", job.id, e);
+    } finally {
+      job.finishedAt = Instant.now();
+    }
+  }
+
+  private void applyChunk(Job job, List<UUID> ids, PriceRule rule) {
+    try {
+      var changes = chunkTimer.record(() -> transactionTemplate.execute(status -> reprice(job.id, ids, rule)));
+      job.updated.addAndGet(changes);
+      updatedProducts.increment(changes);
+      job.processed.addAndGet(ids.size());
+      job.chunksDone.incrementAndGet();
+    } catch (RuntimeException e) {
+      job.chunksFailed.incrementAndGet();
+      failedChunks.increment();
+      if (job.error == null) {
+        job.error = e.getMessage();
+      }
+      log.warn("Repricing job {}: chunk of {} products failed", job.id, ids.size(), e);
+    }
+  }
+
+  private int reprice(UUID jobId, List<UUID> ids, PriceRule rule) {
+    var changes = new ArrayList<RepricedProduct>(ids.size());
+    // sorted lock order, so two chunks or a single-product update cannot deadlock with this one
+    jdbcTemplate.query(connection -> {
+      var statement = connection.prepareStatement(LOCK_SQL);
+      statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+      return statement;
+    }, (RowCallbackHandler) rs -> {
+      var productId = rs.getObject(1, UUID.class);
+      long currentPrice = rs.getLong(2);
+      var newPrice = rule.apply(productId, currentPrice);
+      if (newPrice != null && newPrice != currentPrice) {
+        changes.add(new RepricedProduct(productId, currentPrice, newPrice));
+      }
+    });
+    if (changes.isEmpty()) {
+      return 0;
+    }
+
+    jdbcTemplate.batchUpdate(UPDATE_PRODUCT_SQL, changes, changes.size(), (statement, change) -> {
+      statement.setLong(1, change.price());
+      statement.setObject(2, change.productId());
+    });
+    jdbcTemplate.batchUpdate(UPDATE_LISTING_SQL, changes, changes.size(), (statement, change) -> {
+      statement.setLong(1, change.price());
+      statement.setObject(2, change.productId());
+    });
+    jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, changes, changes.size(), (statement, change) -> {
+      statement.setObject(1, change.productId());
+      statement.setLong(2, change.previousPrice());
+      statement.setLong(3, change.price());
+    });
+
+    outboxPublisher.publish(ProductEvents.REPRICING_AGGREGATE, jobId, ProductEvents.REPRICED, Map.of("jobId", jobId, "products", changes));
+    // once per chunk, not per product; cart totals are computed from current prices
+    cache.invalidateAfterCommit(CacheRegions.PRODUCT);
+    cache.invalidateAfterCommit(CacheRegions.PRODUCT_LIST);
+    cache.invalidateAfterCommit(CacheRegions.CART);
+    return changes.size();
+  }
+
+  private Selection selectionFor(RepricingPayload payload) {
+    var sql = new StringBuilder("SELECT p.id FROM products p WHERE true");
+    var args = new ArrayList<>();
+    if (payload.getCategoryId() != null) {
+      var path = payload.isIncludeSubcategories()
+        ? categoryService.tree().find(payload.getCategoryId()).map(CategoryNode::path)
+          .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category not found"))
+        : null;
+      if (path != null) {
+        sql.append(" AND p.category_id IN (SELECT id FROM categories WHERE path LIKE ? || '%')");
+        args.add(path);
+      } else {
+        sql.append(" AND p.category_id = ?");
+        args.add(payload.getCategoryId());
+      }
+    }
+    if (payload.getMinPrice() != null) {
+      sql.append(" AND p.price >= ?");
+      args.add(payload.getMinPrice());
+    }
+    if (payload.getMaxPrice() != null) {
+      sql.append(" AND p.price <= ?");
+      args.add(payload.getMaxPrice());
+    }
+    // id order keeps chunk locks in the same order as LOCK_SQL
+    sql.append(" ORDER BY p.id");
+    return new Selection(sql.toString(), args.toArray());
+  }
+
+  private List<UUID> selectIds(Selection selection) {
+    // a transaction keeps autocommit off, which pgjdbc needs to honour the fetch size
+    return transactionTemplate.execute(status -> {
+      var ids = new ArrayList<UUID>();
+      selectTemplate.query(selection.sql(), (RowCallbackHandler) rs -> ids.add(rs.getObject(1, UUID.class)), selection.args());
+      return ids;
+    });
+  }
+
+  private void forgetFinishedJobs() {
+    var cutoff = Instant.now().minus(properties.getJobRetention());
+    jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+  }
+
+  /**
+   * One chunk on the chunk pool. Its future completes whether the chunk
+   * ran or was rejected at shutdown; a plain runnable dropped by the pool
+   * would leave the job thread waiting forever.
+   */
+  private final class ChunkTask implements Runnable {
+    private final Job job;
+    private final List<UUID> ids;
+    private final PriceRule rule;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    ChunkTask(Job job, List<UUID> ids, PriceRule rule) {
+      this.job = job;
+      this.ids = ids;
+      this.rule = rule;
+    }
+
+    @Override
+    public void run() {
+      try {
+        applyChunk(job, ids, rule);
+      } finally {
+        done.complete(null);
+      }
+    }
+
+    void reject() {
+      job.chunksFailed.incrementAndGet();
+      failedChunks.increment();
+      if (job.error == null) {
+        job.error = "Repricing was shut down";
+      }
+      done.complete(null);
+    }
+  }
+
+  public record RepricedProduct(UUID productId, long previousPrice, long price) {
+  }
+
+  private record Selection(String sql, Object[] args) {
+  }
+
+  @FunctionalInterface
+  private interface IdSource {
+    List<UUID> ids();
+  }
+
+  private static final class Job {
+    private final UUID id;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger chunksDone = new AtomicInteger();
+    private final AtomicInteger chunksFailed = new AtomicInteger();
+    private volatile Status status = Status.QUEUED;
+    private volatile int total;
+    private volatile int chunks;
+    private volatile String error;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    Job(UUID id) {
+      this.id = id;
+    }
+
+    RepricingJobDto toDto() {
+      return new RepricingJobDto(id, status, total, processed.get(), updated.get(), chunks,
+        chunksDone.get(), chunksFailed.get(), error, createdAt, startedAt, finishedAt);
+    }
+  }
+}
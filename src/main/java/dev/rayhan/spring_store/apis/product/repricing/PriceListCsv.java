@@ -0,0 +1,69 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Parses {@code productId,price} lines. A first line that does not start
+ * with a UUID is taken as a header; a product listed twice keeps its last
+ * price.
+ */
+final class PriceListCsv {
+
+  private PriceListCsv() {
+  }
+
+  static Map<UUID, Long> parse(String body, int maxRows) {
+    var prices = new LinkedHashMap<UUID, Long>();
+    var lines = body.split("\\R");
+    for (int i = 0; i < lines.length; i++) {
+      var line = lines[i].strip();
+      if (line.isEmpty()) {
+        continue;
+      }
+      var fields = line.split(",", -1);
+      if (i == 0 && !isUuid(fields[0].strip())) {
+        continue;
+      }
+      if (fields.length != 2) {
+        throw invalid(i, "expected productId,price");
+      }
+      UUID productId;
+      long price;
+      try {
+        productId = UUID.fromString(fields[0].strip());
+        price = Long.parseLong(fields[1].strip());
+      } catch (IllegalArgumentException e) {
+        throw invalid(i, "expected productId,price");
+      }
+      if (price < 0) {
+        throw invalid(i, "price must not be negative");
+      }
+      prices.put(productId, price);
+      if (prices.size() > maxRows) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Price list has more than " + maxRows + " products");
+      }
+    }
+    if (prices.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Price list is empty");
+    }
+    return prices;
+  }
+
+  private static boolean isUuid(String value) {
+    try {
+      UUID.fromString(value);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static ResponseStatusException invalid(int index, String reason) {
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid price list line " + (index + 1) + ": " + reason);
+  }
+}
@@ -0,0 +1,44 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * New price of one product, evaluated against the price read under the
+ * chunk's row lock, so a concurrent single-product update is never
+ * overwritten with a price computed from a stale value.
+ */
+@FunctionalInterface
+public interface PriceRule {
+
+  /**
+   * @return the new price, or null to leave the product alone
+   */
+  Long apply(UUID productId, long currentPrice);
+
+  static PriceRule percent(double percent, Double minPrice, Double maxPrice) {
+    return (productId, currentPrice) -> inRange(currentPrice, minPrice, maxPrice)
+      ? nonNegative(Math.round(currentPrice * (100 + percent) / 100))
+      : null;
+  }
+
+  static PriceRule absolute(long amount, Double minPrice, Double maxPrice) {
+    return (productId, currentPrice) -> inRange(currentPrice, minPrice, maxPrice)
+      ? nonNegative(currentPrice + amount)
+      : null;
+  }
+
+  static PriceRule priceList(Map<UUID, Long> prices) {
+    return (productId, currentPrice) -> prices.get(productId);
+  }
+
+  // the selection ran before the lock, so the range is checked again here
+  private static boolean inRange(long price, Double minPrice, Double maxPrice) {
+    return (minPrice == null || price >= minPrice) && (maxPrice == null || price <= maxPrice);
+  }
+
+  // a discount bigger than the price skips the product instead of clamping it to free
+  private static Long nonNegative(long price) {
+    return price >= 0 ? price : null;
+  }
+}
@@ -0,0 +1,53 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import dev.rayhan.spring_store.apis.product.dtos.RepricingJobDto;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingPayload;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/products/repricing")
+@AllArgsConstructor
+@Tag(name = "Products", description = "Product related operations")
+public class RepricingController {
+  private static final String TEXT_CSV = "text/csv";
+
+  private final BulkRepricer bulkRepricer;
+
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<RepricingJobDto> reprice(
+    @Valid @RequestBody RepricingPayload payload,
+    UriComponentsBuilder uriBuilder
+  ) {
+    return accepted(bulkRepricer.submit(payload), uriBuilder);
+  }
+
+  @PostMapping(consumes = TEXT_CSV)
+  public ResponseEntity<RepricingJobDto> repriceFromPriceList(
+    @RequestBody String csv,
+    UriComponentsBuilder uriBuilder
+  ) {
+    return accepted(bulkRepricer.submitPriceList(csv), uriBuilder);
+  }
+
+  @GetMapping("/{jobId}")
+  public ResponseEntity<RepricingJobDto> show(@PathVariable UUID jobId) {
+    return bulkRepricer.find(jobId)
+      .map(ResponseEntity::ok)
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Repricing job not found"));
+  }
+
+  private static ResponseEntity<RepricingJobDto> accepted(RepricingJobDto job, UriComponentsBuilder uriBuilder) {
+    var uri = uriBuilder.path("/products/repricing/{jobId}").buildAndExpand(job.id()).toUri();
+    return ResponseEntity.accepted().location(uri).body(job);
+  }
+}
@@ -0,0 +1,21 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.repricing")
+public class RepricingProperties {
+  // products per transaction, JDBC batch and cache invalidation
+  private int chunkSize = 1_000;
+  // chunks applied at the same time; each one holds a connection while it runs
+  private int parallelism = 4;
+  // jobs waiting behind the running one before submissions get 503
+  private int maxQueuedJobs = 4;
+  private int maxCsvRows = 100_000;
+  private int fetchSize = 10_000;
+  // finished jobs stay queryable for this long
+  private Duration jobRetention = Duration.ofHours(1);
+}
@@ -0,0 +1,52 @@
+package dev.rayhan.spring_store.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+@AllArgsConstructor
+public class PageSizeGuard {
+    private final PaginationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public int resolveLimit(String endpoint, Integer requested) {
+        int limit = requested != null ? requested : PaginationHelper.DEFAULT_PAGE_SIZE;
+        int max = properties.maxPageSizeFor(endpoint);
+
+        DistributionSummary.builder("store.pagination.requested")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(limit);
+
+        if (limit <= max) {
+            return limit;
+        }
+
+        if (properties.getOverflow() == PaginationProperties.OverflowMode.REJECT) {
+            capped(endpoint, "rejected").increment();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at most " + max);
+        }
+
+        capped(endpoint, "clamped").increment();
+        return max;
+    }
+
+    public void recordServed(String endpoint, int served) {
+        DistributionSummary.builder("store.pagination.served")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(served);
+    }
+
+    private Counter capped(String endpoint, String outcome) {
+        return Counter.builder("store.pagination.capped")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
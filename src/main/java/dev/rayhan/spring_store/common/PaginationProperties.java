@@ -0,0 +1,27 @@
+package dev.rayhan.spring_store.common;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "store.pagination")
+public class PaginationProperties {
+    private int defaultMaxPageSize = 100;
+    private OverflowMode overflow = OverflowMode.CLAMP;
+    private Map<String, Integer> maxPageSize = new HashMap<>();
+    // totals below this are counted exactly, above it the planner's estimate is used
+    private long exactCountThreshold = 10_000;
+    private Duration totalCacheTtl = Duration.ofSeconds(60);
+
+    public enum OverflowMode {
+        CLAMP, REJECT
+    }
+
+    public int maxPageSizeFor(String endpoint) {
+        return maxPageSize.getOrDefault(endpoint, defaultMaxPageSize);
+    }
+}
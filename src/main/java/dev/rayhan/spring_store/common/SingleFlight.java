@@ -0,0 +1,89 @@
+package dev.rayhan.spring_store.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs identical work once when several requests ask for it at the same
+ * time. The first caller for a key runs {@code work} on its own thread;
+ * callers arriving while it runs wait for and share its result or
+ * exception. Results are not kept once the work is done, that is what
+ * the cache is for.
+ */
+@Component
+public class SingleFlight {
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param maxWait how long a coalesced caller waits for the running call
+     *                before giving up with 503
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, String key, Duration maxWait, Supplier<T> work) {
+        var flightKey = name + "|" + key;
+        var flight = new CompletableFuture<Object>();
+        var running = inFlight.putIfAbsent(flightKey, flight);
+
+        if (running != null) {
+            return (T) await(name, running, maxWait);
+        }
+
+        counter(name, "leader").increment();
+        try {
+            T result = work.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Object await(String name, CompletableFuture<Object> running, Duration maxWait) {
+        try {
+            var result = running.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            counter(name, "coalesced").increment();
+            return result;
+        } catch (TimeoutException e) {
+            counter(name, "timeout").increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request timed out waiting for an identical request");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        } catch (ExecutionException e) {
+            counter(name, "coalesced").increment();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Counter counter(String name, String role) {
+        return Counter.builder("store.singleflight.calls")
+                .tag("name", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package dev.rayhan.spring_store.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.rayhan.spring_store.common.dtos.TotalCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for list endpoints without a {@code count(*)} on every request.
+ * <p>
+ * Postgres' planner already knows roughly how many rows a table or a
+ * filter matches: {@code pg_class.reltuples} for a whole table, the row
+ * estimate of {@code EXPLAIN} for a filtered query. When that estimate is
+ * below {@code store.pagination.exact-count-threshold} the rows are
+ * counted exactly, which is cheap at that size; above it the estimate is
+ * returned. Either way the result is kept for {@code total-cache-ttl}.
+ */
+@Component
+public class TotalCountEstimator {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PaginationProperties properties;
+    private final Cache<String, TotalCount> totals;
+    private final MeterRegistry meterRegistry;
+
+    public TotalCountEstimator(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, PaginationProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(properties.getTotalCacheTtl())
+                .build();
+    }
+
+    /**
+     * Total rows of a whole table.
+     */
+    public TotalCount tableTotal(String table, LongSupplier exactCount) {
+        return totals.get("table:" + table, key -> resolve(table, () -> reltuples(table), exactCount));
+    }
+
+    /**
+     * Total rows matched by {@code sql}, a {@code SELECT} with the same
+     * filter as the list query.
+     */
+    public TotalCount filteredTotal(String endpoint, String sql, Object[] params, LongSupplier exactCount) {
+        var key = endpoint + ":" + sql + ":" + Arrays.toString(params);
+        return totals.get(key, k -> resolve(endpoint, () -> explainRows(sql, params), exactCount));
+    }
+
+    private TotalCount resolve(String endpoint, LongSupplier estimate, LongSupplier exactCount) {
+        long estimated = estimate.getAsLong();
+        // -1: never analyzed, the planner has nothing to go on
+        if (estimated >= properties.getExactCountThreshold()) {
+            counter(endpoint, "estimated").increment();
+            return new TotalCount(estimated, false);
+        }
+        counter(endpoint, "exact").increment();
+        return new TotalCount(exactCount.getAsLong(), true);
+    }
+
+    private long reltuples(String table) {
+        Long estimate = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+        return estimate != null ? estimate : -1;
+    }
+
+    private long explainRows(String sql, Object[] params) {
+        try {
+            var plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, params);
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(-1);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private Counter counter(String endpoint, String kind) {
+        return Counter.builder("store.pagination.totals")
+                .tag("endpoint", endpoint)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.rayhan.spring_store.common.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "store.cache")
+public class CacheProperties {
+    private boolean enabled = true;
+    private SharedTier shared = SharedTier.LOCAL;
+    private String redisUrl = "redis://localhost:6379";
+    private String invalidationChannel = "store:cache:invalidate";
+    // the near cache holds deserialized DTOs in each instance's heap
+    private long nearMaxSize = 10_000;
+    // also how long an instance can miss an invalidation message before it heals
+    private Duration nearTtl = Duration.ofSeconds(30);
+    private Duration defaultTtl = Duration.ofMinutes(5);
+    // loads finishing this long after an eviction may have read the old row
+    // (in flight at commit, or from a lagging replica); keep above replica lag
+    private Duration evictionGuard = Duration.ofSeconds(10);
+    // shared tier TTL of values loaded inside the eviction guard
+    private Duration guardedTtl = Duration.ofSeconds(1);
+    // per region, in the shared tier
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    public enum SharedTier {
+        LOCAL,
+        REDIS
+    }
+
+    Duration ttlFor(String region) {
+        return ttl.getOrDefault(region, defaultTtl);
+    }
+}
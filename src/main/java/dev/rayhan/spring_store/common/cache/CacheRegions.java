@@ -0,0 +1,15 @@
+package dev.rayhan.spring_store.common.cache;
+
+public final class CacheRegions {
+    // ProductListDto by id
+    public static final String PRODUCT = "product";
+    // product list pages by normalized filter
+    public static final String PRODUCT_LIST = "product-list";
+    // CartDto by cart id; totals depend on product prices
+    public static final String CART = "cart";
+    // CategoryTree of every category, one entry
+    public static final String CATEGORY_TREE = "category-tree";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,97 @@
+package dev.rayhan.spring_store.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCache} on Redis through a Jedis connection pool. Each
+ * subscription holds one connection on its own thread and reconnects
+ * after a connection loss.
+ */
+@Slf4j
+public class RedisSharedCache implements SharedCache {
+    private static final Duration RESUBSCRIBE_DELAY = Duration.ofSeconds(1);
+
+    private final JedisPooled jedis;
+    private volatile boolean closed;
+
+    public RedisSharedCache(String url) {
+        this.jedis = new JedisPooled(URI.create(url));
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return jedis.get(bytes(key));
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        jedis.psetex(bytes(key), ttl.toMillis(), value);
+    }
+
+    @Override
+    public void delete(String key) {
+        jedis.del(key);
+    }
+
+    @Override
+    public long increment(String key) {
+        return jedis.incr(key);
+    }
+
+    @Override
+    public long counter(String key) {
+        var value = jedis.get(key);
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        jedis.publish(channel, message);
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        Thread.ofPlatform().daemon().name("redis-sub-" + channel).start(() -> {
+            while (!closed) {
+                try {
+                    jedis.subscribe(new JedisPubSub() {
+                        @Override
+                        public void onMessage(String ch, String message) {
+                            listener.accept(message);
+                        }
+                    }, channel);
+                } catch (RuntimeException e) {
+                    if (!closed) {
+                        log.warn("Redis subscription to {} lost, resubscribing", channel, e);
+                        sleep(RESUBSCRIBE_DELAY);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        jedis.close();
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
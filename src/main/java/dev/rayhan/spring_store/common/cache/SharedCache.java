@@ -0,0 +1,38 @@
+package dev.rayhan.spring_store.common.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The cache tier shared by every instance. {@link RedisSharedCache} talks
+ * to Redis, {@link LocalSharedCache} is an in-process stand-in with the
+ * same semantics for single-node runs and tests.
+ */
+public interface SharedCache extends AutoCloseable {
+    byte[] get(String key);
+
+    void set(String key, byte[] value, Duration ttl);
+
+    void delete(String key);
+
+    /**
+     * @return the counter after incrementing, starting from 1
+     */
+    long increment(String key);
+
+    /**
+     * @return the counter, 0 if it was never incremented
+     */
+    long counter(String key);
+
+    void publish(String channel, String message);
+
+    /**
+     * Calls {@code listener} for every message published to {@code channel}
+     * by any instance, this one included.
+     */
+    void subscribe(String channel, Consumer<String> listener);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,253 @@
+package dev.rayhan.spring_store.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Two-level read-through cache: a per-instance near cache of deserialized
+ * values in front of the {@link SharedCache} holding Smile-encoded bytes.
+ * <p>
+ * Keys live in regions. Every region has a generation number kept in the
+ * shared tier and part of each key, so invalidating a whole region (all
+ * product list pages, say) is one counter increment. Evictions and
+ * generation changes are broadcast over pub/sub so every instance drops
+ * its near copy.
+ * <p>
+ * A load can finish after the eviction of its key: it was in flight when
+ * the writer committed, or it read a lagging replica. Every key eviction
+ * therefore leaves a guard marker for {@code eviction-guard}, and a value
+ * loaded while its key is guarded is kept for {@code guarded-ttl} in the
+ * shared tier and not in the loading instance's near cache; another
+ * instance may still hold it for {@code near-ttl}, the bound the near
+ * cache has anyway. The marker is checked
+ * after the write, so a load that misses it wrote before the eviction and
+ * is deleted by it. Region invalidation needs no guard for in-flight
+ * loads: they write under the old generation, which nobody reads.
+ * <p>
+ * Concurrent misses for the same key on one instance load it once. A
+ * failing shared tier is skipped, never fatal. Near cache values are
+ * handed to every caller as the same instance, so treat them as read-only.
+ */
+@Slf4j
+@Component
+public class TieredCache {
+    private static final String EVICT = "k|";
+    private static final String GENERATION = "g|";
+    private static final byte[] GUARD = new byte[0];
+
+    private final CacheProperties properties;
+    private final SharedCache shared;
+    private final ObjectMapper smile;
+    private final Cache<String, Object> near;
+    private final Cache<String, Long> generations;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedErrors;
+
+    @Autowired
+    public TieredCache(CacheProperties properties, Jackson2ObjectMapperBuilder objectMapperBuilder, MeterRegistry meterRegistry) {
+        this(properties, properties.getShared() == CacheProperties.SharedTier.REDIS
+                ? new RedisSharedCache(properties.getRedisUrl())
+                : new LocalSharedCache(), objectMapperBuilder, meterRegistry);
+    }
+
+    TieredCache(CacheProperties properties, SharedCache shared, Jackson2ObjectMapperBuilder objectMapperBuilder, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.shared = shared;
+        this.smile = objectMapperBuilder.factory(new SmileFactory()).build();
+        this.near = Caffeine.newBuilder()
+                .maximumSize(properties.getNearMaxSize())
+                .expireAfterWrite(properties.getNearTtl())
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getNearTtl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, near, "store.near");
+        this.sharedHits = sharedCounter(meterRegistry, "hit");
+        this.sharedMisses = sharedCounter(meterRegistry, "miss");
+        this.sharedErrors = sharedCounter(meterRegistry, "error");
+
+        shared.subscribe(properties.getInvalidationChannel(), this::onInvalidation);
+    }
+
+    public JavaType typeOf(Class<?> type) {
+        return smile.getTypeFactory().constructType(type);
+    }
+
+    public JavaType typeOf(Class<?> type, Class<?>... parameters) {
+        return smile.getTypeFactory().constructParametricType(type, parameters);
+    }
+
+    public JavaType listOf(Class<?> elementType) {
+        return smile.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it. A
+     * {@code null} from the loader is returned but not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String region, String key, JavaType type, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        var fullKey = fullKey(region, key);
+        var guarded = new AtomicBoolean();
+        var value = near.get(fullKey, k -> {
+            var cached = readShared(k, type);
+            if (cached != null) {
+                return cached;
+            }
+            var loaded = loader.get();
+            if (loaded != null && writeShared(k, loaded, region)) {
+                guarded.set(true);
+            }
+            return loaded;
+        });
+        if (guarded.get()) {
+            near.invalidate(fullKey);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Drops one key everywhere once the current transaction commits, or
+     * right away outside a transaction.
+     */
+    public void evictAfterCommit(String region, String key) {
+        afterCommit(() -> {
+            var fullKey = fullKey(region, key);
+            near.invalidate(fullKey);
+            sharedCall(() -> shared.set(guardKey(fullKey), GUARD, properties.getEvictionGuard()));
+            sharedCall(() -> shared.delete(fullKey));
+            sharedCall(() -> shared.publish(properties.getInvalidationChannel(), EVICT + fullKey));
+        });
+    }
+
+    /**
+     * Drops every key of the region everywhere once the current
+     * transaction commits, or right away outside a transaction.
+     */
+    public void invalidateAfterCommit(String region) {
+        afterCommit(() -> sharedCall(() -> {
+            long generation = shared.increment(generationKey(region));
+            generations.put(region, generation);
+            shared.publish(properties.getInvalidationChannel(), GENERATION + region + "|" + generation);
+        }));
+    }
+
+    private void onInvalidation(String message) {
+        if (message.startsWith(EVICT)) {
+            near.invalidate(message.substring(EVICT.length()));
+        } else if (message.startsWith(GENERATION)) {
+            var separator = message.lastIndexOf('|');
+            var region = message.substring(GENERATION.length(), separator);
+            long generation = Long.parseLong(message.substring(separator + 1));
+            generations.asMap().merge(region, generation, Math::max);
+        }
+    }
+
+    private String fullKey(String region, String key) {
+        long generation = generations.get(region, r -> {
+            try {
+                return shared.counter(generationKey(r));
+            } catch (RuntimeException e) {
+                sharedErrors.increment();
+                return 0L;
+            }
+        });
+        return region + ":" + generation + ":" + key;
+    }
+
+    private static String generationKey(String region) {
+        return "gen:" + region;
+    }
+
+    private static String guardKey(String key) {
+        return "guard:" + key;
+    }
+
+    private Object readShared(String key, JavaType type) {
+        try {
+            var bytes = shared.get(key);
+            if (bytes == null) {
+                sharedMisses.increment();
+                return null;
+            }
+            sharedHits.increment();
+            return smile.readValue(bytes, type);
+        } catch (IOException | RuntimeException e) {
+            sharedErrors.increment();
+            log.debug("Shared cache read of {} failed", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return whether the key was evicted recently, so the value may be stale
+     */
+    private boolean writeShared(String key, Object value, String region) {
+        try {
+            var bytes = smile.writeValueAsBytes(value);
+            shared.set(key, bytes, properties.ttlFor(region));
+            if (shared.get(guardKey(key)) != null) {
+                shared.set(key, bytes, properties.getGuardedTtl());
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            sharedErrors.increment();
+            log.debug("Shared cache write of {} failed", key, e);
+        }
+        return false;
+    }
+
+    private void sharedCall(Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Shared cache invalidation failed", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Counter sharedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("store.cache.shared").tag("result", result).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        shared.close();
+    }
+}
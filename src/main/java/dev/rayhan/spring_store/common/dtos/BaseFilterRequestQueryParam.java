@@ -1,5 +1,6 @@
 package dev.rayhan.spring_store.common.dtos;
 
+import jakarta.validation.constraints.Min;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,6 +8,13 @@ import lombok.Setter;
 @Data
 public class BaseFilterRequestQueryParam {
     private SortDirection sort = SortDirection.DESC;
+
+    @Min(value = 1, message = "Page must be at least 1")
     private Integer page = 1;
+
+    @Min(value = 1, message = "Limit must be at least 1")
     private Integer limit = 10;
+
+    // adds a total to the page, exact for small results and estimated for large ones
+    private boolean withTotal = false;
 }
@@ -0,0 +1,38 @@
+package dev.rayhan.spring_store.common.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list endpoint. {@code hasNext} comes from fetching one row
+ * more than the limit; {@code total} is only filled in when the client
+ * asks for it, and {@code totalExact} says whether it was counted or
+ * estimated.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageResponse<T>(
+        List<T> items,
+        int page,
+        int limit,
+        boolean hasNext,
+        Long total,
+        Boolean totalExact
+) {
+    public static <E, T> PageResponse<T> of(Slice<E> slice, Function<E, T> mapper) {
+        return new PageResponse<>(
+                slice.getContent().stream().map(mapper).toList(),
+                slice.getNumber() + 1,
+                slice.getSize(),
+                slice.hasNext(),
+                null,
+                null
+        );
+    }
+
+    public PageResponse<T> withTotal(TotalCount total) {
+        return new PageResponse<>(items, page, limit, hasNext, total.value(), total.exact());
+    }
+}
@@ -5,5 +5,7 @@ public enum ProductSortByColumn {
     description,
     price,
     createdAt,
-    updatedAt
+    updatedAt,
+    // decayed view and add-to-cart score, see PopularityCounters
+    popularity
 }
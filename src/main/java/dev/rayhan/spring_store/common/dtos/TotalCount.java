@@ -0,0 +1,4 @@
+package dev.rayhan.spring_store.common.dtos;
+
+public record TotalCount(long value, boolean exact) {
+}
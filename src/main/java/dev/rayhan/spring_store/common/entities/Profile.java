@@ -28,9 +28,6 @@ public class Profile extends BaseEntity {
     @Column(name = "date_of_birth")
     private LocalDate dob;
 
-    @Column(name = "loyalty_points")
-    private Integer loyaltyPoints;
-
     @OneToOne
     @JoinColumn(name = "user_id")
     @ToString.Exclude
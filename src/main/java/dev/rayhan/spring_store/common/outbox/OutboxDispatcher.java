@@ -0,0 +1,128 @@
+package dev.rayhan.spring_store.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Polls the outbox and hands each due event to the in-process
+ * {@code @EventListener}s as an {@link OutboxMessage}.
+ * <p>
+ * A batch is locked and marked published in one transaction, so an event
+ * is retried until every listener has accepted it once. A crash after
+ * delivery but before commit delivers it again. Each event is delivered
+ * in a transaction of its own: a listener whose SQL fails only rolls back
+ * its own work, not the row locks and bookkeeping of the batch. Failed
+ * events are retried with exponential backoff up to {@code max-attempts}.
+ */
+@Slf4j
+@Component
+class OutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate deliveryTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer lag;
+
+    OutboxDispatcher(
+            OutboxRepository outboxRepository,
+            OutboxProperties properties,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.deliveryTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.delivered = Counter.builder("store.outbox.delivered").register(meterRegistry);
+        this.failed = Counter.builder("store.outbox.failed").register(meterRegistry);
+        this.lag = Timer.builder("store.outbox.lag")
+                .description("Time from commit of the event to its delivery")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${store.outbox.poll-interval:500ms}")
+    public void dispatch() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int batchSize = properties.getBatchSize();
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> dispatchBatch(batchSize));
+        } while (batch != null && batch == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${store.outbox.cleanup-interval:1h}")
+    public void deletePublished() {
+        var cutoff = Instant.now().minus(properties.getRetention());
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    outboxRepository.deletePublishedBefore(cutoff, properties.getBatchSize() * 10));
+        } while (deleted != null && deleted == properties.getBatchSize() * 10);
+    }
+
+    private int dispatchBatch(int batchSize) {
+        var now = Instant.now();
+        var events = outboxRepository.lockNextBatch(now, properties.getMaxAttempts(), batchSize);
+        for (var event : events) {
+            try {
+                var message = toMessage(event);
+                deliveryTransaction.executeWithoutResult(status -> eventPublisher.publishEvent(message));
+                event.setPublishedAt(Instant.now());
+                delivered.increment();
+                lag.record(Duration.between(event.getCreatedAt(), event.getPublishedAt()));
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plus(backoff(event.getAttempts())));
+                event.setLastError(truncate(e.toString()));
+                failed.increment();
+                log.warn("Outbox event {} ({} {}) failed, attempt {}",
+                        event.getId(), event.getAggregateType(), event.getEventType(), event.getAttempts(), e);
+            }
+        }
+        return events.size();
+    }
+
+    private OutboxMessage toMessage(OutboxEvent event) throws Exception {
+        return new OutboxMessage(
+                event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getEventType(),
+                objectMapper.readTree(event.getPayload()),
+                event.getCreatedAt()
+        );
+    }
+
+    private Duration backoff(int attempts) {
+        var backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
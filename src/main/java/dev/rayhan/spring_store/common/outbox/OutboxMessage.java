@@ -0,0 +1,24 @@
+package dev.rayhan.spring_store.common.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What {@code @EventListener}s receive for every delivered outbox row.
+ * Delivery is at least once, so listeners must tolerate seeing the same
+ * {@code id} again.
+ */
+public record OutboxMessage(
+        long id,
+        String aggregateType,
+        UUID aggregateId,
+        String eventType,
+        JsonNode payload,
+        Instant createdAt
+) {
+    public boolean is(String aggregateType, String eventType) {
+        return this.aggregateType.equals(aggregateType) && this.eventType.equals(eventType);
+    }
+}
@@ -0,0 +1,19 @@
+package dev.rayhan.spring_store.common.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "store.outbox")
+public class OutboxProperties {
+    private boolean enabled = true;
+    private int batchSize = 100;
+    // events that failed this often stay in the table for inspection
+    private int maxAttempts = 10;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(10);
+    // published events are kept this long, then deleted
+    private Duration retention = Duration.ofDays(3);
+}
@@ -0,0 +1,42 @@
+package dev.rayhan.spring_store.common.outbox;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxRepository extends CrudRepository<OutboxEvent, Long> {
+    /**
+     * Locks the next due events. Rows already locked by another dispatcher
+     * are skipped instead of waited on, so several instances can poll the
+     * same table.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM outbox_events
+            WHERE published_at IS NULL
+              AND attempts < :maxAttempts
+              AND available_at <= :now
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<OutboxEvent> lockNextBatch(
+            @Param("now") Instant now,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("batchSize") int batchSize
+    );
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM outbox_events WHERE id IN (
+              SELECT id FROM outbox_events
+              WHERE published_at < :cutoff
+              LIMIT :batchSize
+              FOR UPDATE SKIP LOCKED
+            )
+            """)
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+}
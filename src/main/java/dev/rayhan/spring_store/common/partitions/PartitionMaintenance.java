@@ -0,0 +1,130 @@
+package dev.rayhan.spring_store.common.partitions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly range partitions of the tables in
+ * {@code store.partitions.retention-months}: partitions for the next
+ * {@code premake-months} are created before rows can arrive for them, and
+ * partitions entirely older than the retention are dropped, which is a
+ * metadata operation instead of a bulk DELETE.
+ * <p>
+ * Partitions are named {@code <parent>_pYYYY_MM}. Every node runs this,
+ * a transaction-scoped advisory lock makes only one of them do the work.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenance {
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("uuuu_MM");
+    private static final long LOCK_KEY = 0x5041_5254L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionProperties properties;
+    private final Counter created;
+    private final Counter dropped;
+
+    public PartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PartitionProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.created = Counter.builder("store.partitions.created").register(meterRegistry);
+        this.dropped = Counter.builder("store.partitions.dropped").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            // the migration made the first months, the scheduled run retries
+            log.warn("Partition maintenance failed at startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${store.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            var now = YearMonth.now();
+            properties.getRetentionMonths().forEach((parent, retention) -> {
+                if (!IDENTIFIER.matcher(parent).matches()) {
+                    throw new IllegalStateException("Not a plain table name: " + parent);
+                }
+                createAhead(parent, now);
+                dropExpired(parent, now.minusMonths(retention));
+            });
+        });
+    }
+
+    private void createAhead(String parent, YearMonth now) {
+        for (int i = 0; i <= properties.getPremakeMonths(); i++) {
+            var month = now.plusMonths(i);
+            var partition = partitionName(parent, month);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + parent
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            created.increment();
+            log.info("Created partition {}", partition);
+        }
+    }
+
+    /**
+     * Drops partitions whose whole month lies before {@code oldestKept}.
+     */
+    private void dropExpired(String parent, YearMonth oldestKept) {
+        var partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, String.class, parent);
+        var prefix = parent + "_p";
+        for (var partition : partitions) {
+            if (!partition.startsWith(prefix)) {
+                continue;
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.from(SUFFIX.parse(partition.substring(prefix.length())));
+            } catch (RuntimeException e) {
+                // attached by hand under another name, not ours to drop
+                continue;
+            }
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped.increment();
+                log.info("Dropped partition {}", partition);
+            }
+        }
+    }
+
+    static String partitionName(String parent, YearMonth month) {
+        return parent + "_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,17 @@
+package dev.rayhan.spring_store.common.partitions;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "store.partitions")
+public class PartitionProperties {
+    private boolean enabled = true;
+    // months of partitions kept ready ahead of the current one
+    private int premakeMonths = 2;
+    // parent table -> months of partitions kept behind the current one
+    private Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+}
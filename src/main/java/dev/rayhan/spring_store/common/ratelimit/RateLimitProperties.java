@@ -0,0 +1,27 @@
+package dev.rayhan.spring_store.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "store.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private boolean trustForwardedFor = false;
+    private int maxBucketsPerRoute = 100_000;
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String name;
+        private String pattern;
+        private List<String> methods = new ArrayList<>();
+        private long capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
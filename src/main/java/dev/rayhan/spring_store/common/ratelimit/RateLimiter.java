@@ -0,0 +1,117 @@
+package dev.rayhan.spring_store.common.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RateLimiter {
+    static final Decision ALLOWED = new Decision(true, 0);
+
+    private final RateLimitProperties properties;
+    private final List<RouteLimiter> routes;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.routes = properties.getRoutes().stream().map(RouteLimiter::new).toList();
+    }
+
+    public Decision check(HttpServletRequest request) {
+        if (!properties.isEnabled() || routes.isEmpty()) {
+            return ALLOWED;
+        }
+
+        var path = PathContainer.parsePath(request.getRequestURI());
+        for (var route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route.acquire(resolveClientId(request), System.nanoTime());
+            }
+        }
+        return ALLOWED;
+    }
+
+    @Scheduled(fixedDelayString = "${store.rate-limit.eviction-interval:30s}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (var route : routes) {
+            int before = route.buckets.size();
+            route.buckets.values().removeIf(bucket -> bucket.isFull(now));
+            int evicted = before - route.buckets.size();
+            if (evicted > 0) {
+                log.debug("Evicted {} idle rate limit buckets for route {}", evicted, route.name);
+            }
+        }
+    }
+
+    private String resolveClientId(HttpServletRequest request) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+
+        if (properties.isTrustForwardedFor()) {
+            var forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    public record Decision(boolean allowed, long retryAfterNanos) {
+    }
+
+    private final class RouteLimiter {
+        private final String name;
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final long capacity;
+        private final double refillPerSecond;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+
+        RouteLimiter(RateLimitProperties.Route route) {
+            this.name = route.getName() != null ? route.getName() : route.getPattern();
+            this.pattern = PathPatternParser.defaultInstance.parse(route.getPattern());
+            this.methods = route.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.capacity = route.getCapacity();
+            this.refillPerSecond = route.getRefillPerSecond();
+            // Shared by every client once the per-route bucket table is full, so
+            // a flood of unique keys degrades to one global limit instead of OOM.
+            this.overflow = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+
+        Decision acquire(String clientId, long now) {
+            var bucket = buckets.get(clientId);
+            if (bucket == null) {
+                bucket = buckets.size() < properties.getMaxBucketsPerRoute()
+                        ? buckets.computeIfAbsent(clientId, key -> new TokenBucket(capacity, refillPerSecond, now))
+                        : overflow;
+            }
+
+            long wait = bucket.tryConsume(now);
+            return wait == 0 ? ALLOWED : new Decision(false, wait);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.rayhan.spring_store.common.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls every replica's replication lag. A replica that is too far behind
+ * or cannot be reached is taken out of rotation until a later check finds
+ * it healthy again.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ReplicaRoutingProperties properties;
+    // lag in seconds, NaN when the last check failed
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        replicas.forEach((name, dataSource) -> {
+            var jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(2);
+            this.replicas.put(name, jdbcTemplate);
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("store.datasource.replica.lag", lagSeconds, lags -> lags.get(name))
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("store.datasource.replica.healthy", this, monitor -> monitor.isHealthy(name) ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public boolean isHealthy(String replica) {
+        var lag = lagSeconds.get(replica);
+        return lag != null && !lag.isNaN() && lag * 1000 <= properties.getMaxLag().toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${store.datasource.routing.lag-check-interval:5s}")
+    public void check() {
+        replicas.forEach((name, jdbcTemplate) -> {
+            boolean wasHealthy = isHealthy(name);
+            try {
+                var lag = jdbcTemplate.queryForObject(properties.getLagQuery(), Double.class);
+                lagSeconds.put(name, lag != null ? lag : Double.NaN);
+            } catch (RuntimeException e) {
+                lagSeconds.put(name, Double.NaN);
+                log.debug("Lag check for replica {} failed", name, e);
+            }
+            if (wasHealthy != isHealthy(name)) {
+                log.warn("Replica {} is now {} (lag {}s)", name, isHealthy(name) ? "in rotation" : "out of rotation", lagSeconds.get(name));
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package dev.rayhan.spring_store.common.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the data source for read-only connections: the healthy replicas
+ * in turn, or the primary when none of them is usable.
+ */
+public class ReplicaRouter extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRouter(DataSource primary, Map<String, DataSource> replicas, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.lagMonitor = lagMonitor;
+
+        var targets = new HashMap<Object, Object>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        for (var target : targets.keySet()) {
+            routed.put((String) target, Counter.builder("store.datasource.routed.reads")
+                    .tag("target", (String) target)
+                    .register(meterRegistry));
+        }
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var target = pickReplica();
+        routed.get(target).increment();
+        return target;
+    }
+
+    private String pickReplica() {
+        int size = replicaNames.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            var candidate = replicaNames.get((start + i) % size);
+            if (lagMonitor.isHealthy(candidate)) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,120 @@
+package dev.rayhan.spring_store.common.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the
+ * primary.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy}:
+ * it hands out a placeholder connection and only fetches a real one at
+ * the first statement, when the transaction's read-only flag is known.
+ * Read-only connections come from {@link ReplicaRouter}, all others from
+ * the primary pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "store.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public Pools routingPools(
+            DataSourceProperties dataSourceProperties,
+            ReplicaRoutingProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry
+    ) {
+        var binder = Binder.get(environment);
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("store-primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        var replicas = new LinkedHashMap<String, HikariDataSource>();
+        for (var replica : properties.getReplicas()) {
+            var dataSource = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            if (replica.getMaximumPoolSize() != null) {
+                dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+                if (dataSource.getMinimumIdle() > replica.getMaximumPoolSize()) {
+                    dataSource.setMinimumIdle(replica.getMaximumPoolSize());
+                }
+            }
+            dataSource.setReadOnly(true);
+            dataSource.setPoolName("store-replica-" + replica.getName());
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getName(), dataSource);
+        }
+        return new Pools(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(Pools pools, ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        var monitor = new ReplicaLagMonitor(pools.replicaDataSources(), properties, meterRegistry);
+        // route to replicas from the first request instead of after the first scheduled check
+        monitor.check();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(Pools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        return readWriteDataSource(pools.primary(), new ReplicaRouter(pools.primary(), pools.replicaDataSources(), lagMonitor, meterRegistry));
+    }
+
+    /**
+     * The default handling mode holds a connection for the whole session,
+     * which with open-in-view would carry a replica connection into a
+     * later read-write transaction of the same request. Releasing it after
+     * each transaction makes every transaction route on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION
+        );
+    }
+
+    static DataSource readWriteDataSource(DataSource primary, DataSource readOnly) {
+        var dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        return dataSource;
+    }
+
+    /**
+     * Owns the pools so they are closed with the context; only the routing
+     * data source is exposed as a {@link DataSource} bean.
+     */
+    public record Pools(HikariDataSource primary, Map<String, HikariDataSource> replicas) implements AutoCloseable {
+        Map<String, DataSource> replicaDataSources() {
+            return new LinkedHashMap<>(replicas);
+        }
+
+        @Override
+        public void close() {
+            replicas.values().forEach(HikariDataSource::close);
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.rayhan.spring_store.common.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "store.datasource.routing")
+public class ReplicaRoutingProperties {
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // replicas further behind than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+    // must return the replication lag in seconds as a single number
+    private String lagQuery = """
+            SELECT CASE WHEN pg_is_in_recovery()
+              THEN coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0)
+              ELSE 0 END""";
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        // defaults to spring.datasource.hikari.maximum-pool-size
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,7 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,90 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "store.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetViolations violations;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        var stats = SqlStatementStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end();
+        }
+
+        if (stats.getCount() > 0) {
+            check(endpointOf(request), stats);
+        }
+    }
+
+    private void check(String endpoint, SqlStatementStats stats) {
+        DistributionSummary.builder("store.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder("store.sql.time")
+                .description("Time spent in the database per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        int budget = properties.maxStatementsFor(endpoint);
+        if (stats.getCount() <= budget) {
+            return;
+        }
+
+        Counter.builder("store.sql.budget.violations")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+
+        var message = "%s issued %d SQL statements (budget %d, %d duplicated, %d ms): %s".formatted(
+                endpoint,
+                stats.getCount(),
+                budget,
+                stats.getDuplicateCount(),
+                stats.getElapsedMillis(),
+                stats.getDuplicatedStatements()
+        );
+        if (properties.isFailOnViolation()) {
+            // the response is already out, so throwing here would not fail anything
+            violations.record(message);
+        }
+        log.warn(message);
+    }
+
+    private String endpointOf(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // raw URIs would give the metrics unbounded tag cardinality
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+    }
+}
@@ -0,0 +1,21 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "store.sql-budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+    private int defaultMaxStatements = 25;
+    private boolean failOnViolation = false;
+    // keyed by "<METHOD> <path pattern>", e.g. "GET /carts/{cartId}"
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int maxStatementsFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultMaxStatements);
+    }
+}
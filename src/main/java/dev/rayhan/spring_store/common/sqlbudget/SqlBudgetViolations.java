@@ -0,0 +1,39 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Over-budget requests seen while {@code fail-on-violation} is on. By the
+ * time the filter knows the count the response is usually committed, so
+ * the failure is reported here and raised by the test instead of by the
+ * request.
+ */
+@Component
+@ConditionalOnProperty(prefix = "store.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetViolations {
+    private final List<String> violations = new ArrayList<>();
+
+    synchronized void record(String message) {
+        violations.add(message);
+    }
+
+    public synchronized List<String> drain() {
+        var drained = List.copyOf(violations);
+        violations.clear();
+        return drained;
+    }
+
+    /**
+     * @throws SqlBudgetExceededException listing every violation recorded since the last call
+     */
+    public void assertNone() {
+        var drained = drain();
+        if (!drained.isEmpty()) {
+            throw new SqlBudgetExceededException(String.join("\n", drained));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+class SqlStatementListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        var stats = SqlStatementStats.current();
+        if (stats == null) {
+            return;
+        }
+        // a prepared batch arrives as a single QueryInfo, so it counts once
+        stats.record(queryInfoList.stream().map(QueryInfo::getQuery).toList(), execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,64 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements issued by the current request. Only touched by the request
+ * thread, so it needs no synchronisation.
+ */
+public final class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+    private long elapsedMillis;
+
+    static SqlStatementStats begin() {
+        var stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the stats of the request running on this thread, or null outside a request
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void record(List<String> queries, long elapsedMillis) {
+        this.elapsedMillis += elapsedMillis;
+        for (var sql : queries) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getDuplicateCount() {
+        return count - statements.size();
+    }
+
+    public Map<String, Integer> getDuplicatedStatements() {
+        var duplicated = new HashMap<String, Integer>();
+        statements.forEach((sql, times) -> {
+            if (times > 1) {
+                duplicated.put(sql, times);
+            }
+        });
+        return duplicated;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.rayhan.spring_store.common.startup;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks beans from the packages in {@code store.startup.lazy-packages}
+ * (springdoc by default) as lazy, so they are only built on first use
+ * instead of on the startup path.
+ */
+@Component
+class LazyNonCriticalBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+    private List<String> lazyPackages = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.lazyPackages = Binder.get(environment)
+                .bind("store.startup.lazy-packages", String[].class)
+                .map(List::of)
+                .orElse(List.of());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (lazyPackages.isEmpty()) {
+            return;
+        }
+
+        for (var beanName : beanFactory.getBeanDefinitionNames()) {
+            var definition = beanFactory.getBeanDefinition(beanName);
+            var className = definition.getBeanClassName();
+            if (className == null && definition.getFactoryBeanName() != null) {
+                className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+            }
+            if (className != null && lazyPackages.stream().anyMatch(className::startsWith)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dev.rayhan.spring_store.common.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports startup cost: time from JVM start to ready and to the first
+ * served request, and resident memory at those points. Used to compare
+ * the plain, fast-startup and native builds.
+ */
+@Slf4j
+@Component
+public class StartupReporter extends OncePerRequestFilter {
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final AtomicLong timeToFirstRequestMillis = new AtomicLong(-1);
+    private volatile long readyRssKb = -1;
+
+    public StartupReporter(MeterRegistry meterRegistry) {
+        Gauge.builder("store.startup.time-to-first-request", timeToFirstRequestMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("store.startup.ready.rss", this, reporter -> reporter.readyRssKb)
+                .baseUnit("kilobytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        readyRssKb = residentSetSizeKb();
+        log.info("Startup: ready in {} ms (JVM uptime {} ms), RSS {} KB",
+                event.getTimeTaken().toMillis(), uptimeMillis(), readyRssKb);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (timeToFirstRequestMillis.get() < 0 && timeToFirstRequestMillis.compareAndSet(-1, uptimeMillis())) {
+                log.info("Startup: first request served {} ms after JVM start, RSS {} KB",
+                        timeToFirstRequestMillis.get(), residentSetSizeKb());
+            }
+        }
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    static long residentSetSizeKb() {
+        try (var lines = Files.lines(PROC_STATUS)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.rayhan.spring_store.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Boot's {@code DataSourceAutoConfiguration} backs off as soon as an R2DBC
+ * {@code ConnectionFactory} exists, which the reactive product reads add.
+ * The JDBC side (JPA, repositories, JdbcTemplate) is therefore declared
+ * here from the same {@code spring.datasource.*} properties. With replica
+ * routing on, {@code ReplicaRoutingConfiguration} builds the data source
+ * from these properties instead.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(prefix = "store.datasource.routing", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,172 @@
+package dev.rayhan.spring_store.configs;
+
+import dev.rayhan.spring_store.apis.cart.dtos.CartDto;
+import dev.rayhan.spring_store.apis.cart.dtos.CartItemDto;
+import dev.rayhan.spring_store.apis.cart.dtos.CartProductDto;
+import dev.rayhan.spring_store.apis.cart.dtos.CartTotals;
+import dev.rayhan.spring_store.apis.cart.dtos.CheckoutLine;
+import dev.rayhan.spring_store.apis.cart.dtos.CreateCartItemPayload;
+import dev.rayhan.spring_store.apis.cart.entities.Cart;
+import dev.rayhan.spring_store.apis.cart.entities.CartItem;
+import dev.rayhan.spring_store.apis.category.CategoryNode;
+import dev.rayhan.spring_store.apis.category.CategoryTree;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryDto;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryMenuDto;
+import dev.rayhan.spring_store.apis.category.dtos.CategoryRef;
+import dev.rayhan.spring_store.apis.category.dtos.CreateCategoryPayload;
+import dev.rayhan.spring_store.apis.category.dtos.UpdateCategoryPayload;
+import dev.rayhan.spring_store.apis.order.dtos.CheckoutPayload;
+import dev.rayhan.spring_store.apis.order.dtos.OrderDto;
+import dev.rayhan.spring_store.apis.order.dtos.OrderItemDto;
+import dev.rayhan.spring_store.apis.order.entities.Order;
+import dev.rayhan.spring_store.apis.order.entities.OrderItem;
+import dev.rayhan.spring_store.apis.product.dtos.CreateProductPayload;
+import dev.rayhan.spring_store.apis.product.dtos.PriceHistoryDto;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListFilterRequestQueryParam;
+import dev.rayhan.spring_store.apis.product.dtos.RelatedProductDto;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingJobDto;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingPayload;
+import dev.rayhan.spring_store.apis.product.repricing.BulkRepricer;
+import dev.rayhan.spring_store.apis.product.dtos.UpdateProductPayload;
+import dev.rayhan.spring_store.apis.inventory.dtos.StockDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyAccountDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyBalanceDto;
+import dev.rayhan.spring_store.apis.loyalty.dtos.LoyaltyTransactionPayload;
+import dev.rayhan.spring_store.apis.inventory.dtos.UpdateStockPayload;
+import dev.rayhan.spring_store.apis.inventory.entities.InventoryReservation;
+import dev.rayhan.spring_store.apis.product.entities.Category;
+import dev.rayhan.spring_store.apis.product.entities.Product;
+import dev.rayhan.spring_store.apis.product.entities.ProductListing;
+import dev.rayhan.spring_store.apis.product.entities.ProductCounters;
+import dev.rayhan.spring_store.common.dtos.ChangePasswordPayload;
+import dev.rayhan.spring_store.common.dtos.ProductSortByColumn;
+import dev.rayhan.spring_store.common.dtos.RegisterUserPayload;
+import dev.rayhan.spring_store.common.dtos.SortDirection;
+import dev.rayhan.spring_store.common.dtos.UpdateUserRequestPayload;
+import dev.rayhan.spring_store.common.dtos.UserDto;
+import dev.rayhan.spring_store.common.dtos.PageResponse;
+import dev.rayhan.spring_store.common.dtos.TotalCount;
+import dev.rayhan.spring_store.common.dtos.UserListFilterRequestQueryParam;
+import dev.rayhan.spring_store.common.dtos.UserSortByColumn;
+import dev.rayhan.spring_store.common.entities.Address;
+import dev.rayhan.spring_store.common.entities.Profile;
+import dev.rayhan.spring_store.common.entities.Tag;
+import dev.rayhan.spring_store.common.entities.User;
+import dev.rayhan.spring_store.common.entities.Wishlist;
+import dev.rayhan.spring_store.common.outbox.OutboxEvent;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Hints for {@code mvn -Pnative native:compile}. Spring AOT already covers
+ * beans, controller signatures and Hibernate's own entity enhancement;
+ * these fill the gaps it cannot see.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.StoreRuntimeHints.class)
+@RegisterReflectionForBinding({
+        CartDto.class,
+        CartItemDto.class,
+        CartProductDto.class,
+        // JPQL constructor expressions in CartItemRepository
+        CartTotals.class,
+        CheckoutLine.class,
+        CreateCartItemPayload.class,
+        CategoryDto.class,
+        CategoryMenuDto.class,
+        CategoryNode.class,
+        CategoryRef.class,
+        CategoryTree.class,
+        CreateCategoryPayload.class,
+        UpdateCategoryPayload.class,
+        StockDto.class,
+        LoyaltyAccountDto.class,
+        LoyaltyAccountDto.Transaction.class,
+        LoyaltyBalanceDto.class,
+        LoyaltyTransactionPayload.class,
+        UpdateStockPayload.class,
+        CheckoutPayload.class,
+        OrderDto.class,
+        OrderItemDto.class,
+        CreateProductPayload.class,
+        PriceHistoryDto.class,
+        PriceHistoryDto.Change.class,
+        ProductListDto.class,
+        ProductListFilterRequestQueryParam.class,
+        RelatedProductDto.class,
+        RepricingJobDto.class,
+        RepricingPayload.class,
+        BulkRepricer.RepricedProduct.class,
+        UpdateProductPayload.class,
+        ChangePasswordPayload.class,
+        PageResponse.class,
+        TotalCount.class,
+        RegisterUserPayload.class,
+        UpdateUserRequestPayload.class,
+        UserDto.class,
+        UserListFilterRequestQueryParam.class
+})
+public class NativeImageConfig {
+
+    static class StoreRuntimeHints implements RuntimeHintsRegistrar {
+        private static final List<Class<?>> ENTITIES = List.of(
+                Address.class,
+                Cart.class,
+                CartItem.class,
+                Category.class,
+                InventoryReservation.class,
+                Order.class,
+                OrderItem.class,
+                OutboxEvent.class,
+                Product.class,
+                ProductCounters.class,
+                ProductListing.class,
+                Profile.class,
+                Tag.class,
+                User.class,
+                Wishlist.class
+        );
+
+        private static final List<Class<?>> JDBC_TYPES = List.of(
+                DataSource.class,
+                Connection.class,
+                Statement.class,
+                PreparedStatement.class,
+                CallableStatement.class,
+                ResultSet.class
+        );
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // GET /users/{id} serializes the entity itself, and lazy
+            // associations are read back through Hibernate's proxies.
+            ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS));
+
+            // query parameter enums are bound by name
+            List.of(ProductSortByColumn.class, SortDirection.class, UserSortByColumn.class)
+                    .forEach(type -> hints.reflection().registerType(type, MemberCategory.PUBLIC_FIELDS));
+
+            // datasource-proxy wraps every JDBC object in a JDK proxy
+            JDBC_TYPES.forEach(type -> hints.proxies().registerJdkProxy(ProxyJdbcObject.class, type));
+
+            hints.resources().registerPattern("templates/*.html");
+        }
+    }
+}
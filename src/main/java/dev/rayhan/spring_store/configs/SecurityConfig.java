@@ -1,5 +1,8 @@
 package dev.rayhan.spring_store.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.common.ratelimit.RateLimitFilter;
+import dev.rayhan.spring_store.common.ratelimit.RateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -7,20 +10,27 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper
+    ) throws Exception {
         // Stateless session
         // disable CSRF
         // Authorization
+        // Rate limit once the client is known, before any controller work
 
         http
             .sessionManagement(c -> c.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(AbstractHttpConfigurer::disable)
+            .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), AuthorizationFilter.class)
             .authorizeHttpRequests(c ->{
                 c.anyRequest().permitAll();
 //                c
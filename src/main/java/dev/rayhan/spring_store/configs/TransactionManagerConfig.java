@@ -0,0 +1,30 @@
+package dev.rayhan.spring_store.configs;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * With R2DBC on the classpath Boot also registers a reactive transaction
+ * manager. The JPA one is declared here and marked primary so it is
+ * neither skipped by Boot's missing-bean check nor ambiguous for
+ * {@code @Transactional} and {@code TransactionTemplate}.
+ */
+@Configuration
+public class TransactionManagerConfig {
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers
+    ) {
+        var transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
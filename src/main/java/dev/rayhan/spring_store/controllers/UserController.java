@@ -1,8 +1,11 @@
 package dev.rayhan.spring_store.controllers;
 
+import dev.rayhan.spring_store.common.PageSizeGuard;
 import dev.rayhan.spring_store.common.PaginationHelper;
+import dev.rayhan.spring_store.common.TotalCountEstimator;
 import dev.rayhan.spring_store.common.ValidationErrorHandler;
 import dev.rayhan.spring_store.common.dtos.ChangePasswordPayload;
+import dev.rayhan.spring_store.common.dtos.PageResponse;
 import dev.rayhan.spring_store.common.dtos.RegisterUserPayload;
 import dev.rayhan.spring_store.common.dtos.UpdateUserRequestPayload;
 import dev.rayhan.spring_store.common.dtos.UserListFilterRequestQueryParam;
@@ -28,6 +31,8 @@ import java.util.UUID;
 public class UserController {
     private final UserRepository userRepository;
     private final UserMapper mapper;
+    private final PageSizeGuard pageSizeGuard;
+    private final TotalCountEstimator totalCountEstimator;
 
     @PostMapping("/")
     public ResponseEntity<?> registerUser(
@@ -56,19 +61,23 @@ public class UserController {
             return ResponseEntity.badRequest().body(errors);
         }
 
-        return ResponseEntity.ok(
-                userRepository
-                        .findAll(
-                                PaginationHelper.createPageable(
-                                        filter.getPage(),
-                                        filter.getLimit(),
-                                        filter.getSort(),
-                                        filter.getSortBy().toString()
-                                )
+        var users = PageResponse.of(
+                userRepository.findSliceBy(
+                        PaginationHelper.createPageable(
+                                filter.getPage(),
+                                pageSizeGuard.resolveLimit("users", filter.getLimit()),
+                                filter.getSort(),
+                                filter.getSortBy().toString()
                         )
-                        .stream()
-                        .map(mapper::entityToUserDto).toList()
+                ),
+                mapper::entityToUserDto
         );
+        pageSizeGuard.recordServed("users", users.items().size());
+        if (filter.isWithTotal()) {
+            users = users.withTotal(totalCountEstimator.tableTotal("users", userRepository::count));
+        }
+
+        return ResponseEntity.ok(users);
     }
 
     @GetMapping("/{id}")
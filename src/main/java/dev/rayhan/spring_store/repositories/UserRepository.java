@@ -2,6 +2,8 @@ package dev.rayhan.spring_store.repositories;
 
 import dev.rayhan.spring_store.common.dtos.UserDto;
 import dev.rayhan.spring_store.common.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -9,4 +11,6 @@ import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     List<UserDto> findUsersByNameIgnoreCase(String name);
+
+    Slice<User> findSliceBy(Pageable pageable);
 }
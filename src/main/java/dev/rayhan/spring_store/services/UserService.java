@@ -33,7 +33,6 @@ public class UserService {
 //                .build();
 //        var profile = Profile.builder()
 //                .bio("I'm a developer")
-//                .loyaltyPoints(1000)
 //                .phoneNumber("phone1")
 //                .dob(LocalDate.now())
 //                .build();
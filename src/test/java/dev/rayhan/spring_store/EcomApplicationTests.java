@@ -3,7 +3,12 @@ package dev.rayhan.spring_store;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// H2 in PostgreSQL mode stands in for Postgres, so wiring is checked without a database server
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:store;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
 class EcomApplicationTests {
 
     @Test
@@ -0,0 +1,86 @@
+package dev.rayhan.spring_store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * A real Postgres for tests of SQL that H2 cannot run: ON CONFLICT,
+ * writing CTEs, SKIP LOCKED and row locks under concurrency. One embedded
+ * server is started per test JVM; every test class gets its own database
+ * with the drizzle migrations applied, so classes never see each other's
+ * rows.
+ */
+public final class PostgresTestDatabase {
+    private static final Path MIGRATIONS = Path.of("drizzle", "migrations");
+    private static final Pattern BREAKPOINT = Pattern.compile("--> statement-breakpoint");
+
+    private static EmbeddedPostgres server;
+
+    private PostgresTestDatabase() {
+    }
+
+    /**
+     * Points {@code spring.datasource.*} at a fresh, migrated database.
+     */
+    public static void register(DynamicPropertyRegistry registry, String name) {
+        var url = create(name);
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * @return the JDBC URL of a new database named {@code name} with every migration applied
+     */
+    public static synchronized String create(String name) {
+        var postgres = server();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        var url = postgres.getJdbcUrl("postgres", name);
+        migrate(new JdbcTemplate(new DriverManagerDataSource(url, "postgres", "")));
+        return url;
+    }
+
+    private static EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ignored) {
+                    // the JVM is going away either way
+                }
+            }));
+        }
+        return server;
+    }
+
+    private static void migrate(JdbcTemplate jdbcTemplate) {
+        try {
+            // applied in journal order, one statement per breakpoint, like drizzle-kit migrate
+            var journal = new ObjectMapper().readTree(MIGRATIONS.resolve("meta/_journal.json").toFile());
+            for (var entry : journal.get("entries")) {
+                var sql = Files.readString(MIGRATIONS.resolve(entry.get("tag").asText() + ".sql"));
+                for (var statement : BREAKPOINT.split(sql)) {
+                    if (!statement.isBlank()) {
+                        jdbcTemplate.execute(statement);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
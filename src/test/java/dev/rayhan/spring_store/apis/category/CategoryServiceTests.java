@@ -0,0 +1,114 @@
+package dev.rayhan.spring_store.apis.category;
+
+import dev.rayhan.spring_store.apis.category.dtos.CreateCategoryPayload;
+import dev.rayhan.spring_store.apis.category.dtos.UpdateCategoryPayload;
+import dev.rayhan.spring_store.apis.product.repositories.CategoryRepository;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:categories;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@Import(CategoryService.class)
+class CategoryServiceTests {
+  @Autowired
+  private CategoryService categoryService;
+  @Autowired
+  private CategoryRepository categoryRepository;
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @MockitoBean
+  private TieredCache cache;
+
+  @BeforeEach
+  void setUp() {
+    // no caching, every tree() read loads from the database
+    when(cache.get(any(), any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
+    jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS hashtext FOR \"" + PostgresFunctions.class.getName() + ".hashtext\"");
+    jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS pg_advisory_xact_lock FOR \"" + PostgresFunctions.class.getName() + ".advisoryLock\"");
+  }
+
+  @Test
+  void createsRootAndChildWithTheirPathsInTheInsert() {
+    var root = categoryService.createCategory(payload("Electronics", null));
+    var child = categoryService.createCategory(payload("Phones", root.id()));
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(categoryRepository.findById(root.id())).get()
+      .satisfies(category -> assertThat(category.getPath()).isEqualTo("/" + root.id() + "/"));
+    assertThat(categoryRepository.findById(child.id())).get()
+      .satisfies(category -> {
+        assertThat(category.getParentId()).isEqualTo(root.id());
+        assertThat(category.getPath()).isEqualTo("/" + root.id() + "/" + child.id() + "/");
+      });
+    assertThat(child.breadcrumb()).extracting("name").containsExactly("Electronics", "Phones");
+  }
+
+  @Test
+  void movingACategoryRewritesItsDescendantPaths() {
+    var electronics = categoryService.createCategory(payload("Electronics", null));
+    var phones = categoryService.createCategory(payload("Phones", null));
+    var android = categoryService.createCategory(payload("Android", phones.id()));
+
+    var move = new UpdateCategoryPayload();
+    move.setParentId(electronics.id());
+    categoryService.updateCategory(phones.id(), move);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(categoryRepository.findById(android.id())).get()
+      .satisfies(category -> assertThat(category.getPath())
+        .isEqualTo("/" + electronics.id() + "/" + phones.id() + "/" + android.id() + "/"));
+  }
+
+  @Test
+  void renamingACategoryRewritesItsProductListings() {
+    var shoes = categoryService.createCategory(payload("Shoes", null));
+    var productId = UUID.randomUUID();
+    jdbcTemplate.update("INSERT INTO product_listing (product_id, name, price, category_id, category_name) VALUES (?, 'Runner', 80, ?, 'Shoes')",
+      productId, shoes.id());
+
+    var rename = new UpdateCategoryPayload();
+    rename.setName("Footwear");
+    categoryService.updateCategory(shoes.id(), rename);
+    entityManager.flush();
+
+    assertThat(jdbcTemplate.queryForObject("SELECT category_name FROM product_listing WHERE product_id = ?", String.class, productId))
+      .isEqualTo("Footwear");
+  }
+
+  private static CreateCategoryPayload payload(String name, UUID parentId) {
+    var payload = new CreateCategoryPayload();
+    payload.setName(name);
+    payload.setParentId(parentId);
+    return payload;
+  }
+
+  // H2 stand-ins for the Postgres functions behind CategoryRepository.lockTree
+  public static class PostgresFunctions {
+    public static int hashtext(String value) {
+      return value.hashCode();
+    }
+
+    // the test runs on one connection, there is nothing to serialize
+    public static int advisoryLock(int key) {
+      return 0;
+    }
+  }
+}
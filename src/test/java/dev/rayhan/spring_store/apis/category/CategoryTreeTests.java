@@ -0,0 +1,43 @@
+package dev.rayhan.spring_store.apis.category;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryTreeTests {
+  private static final UUID ELECTRONICS = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private static final UUID PHONES = UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private static final UUID LAPTOPS = UUID.fromString("00000000-0000-0000-0000-000000000003");
+  private static final UUID ANDROID = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+  private static final List<CategoryNode> NODES = List.of(
+    new CategoryNode(ANDROID, "Android", PHONES, "/" + ELECTRONICS + "/" + PHONES + "/" + ANDROID + "/"),
+    new CategoryNode(PHONES, "Phones", ELECTRONICS, "/" + ELECTRONICS + "/" + PHONES + "/"),
+    new CategoryNode(LAPTOPS, "laptops", ELECTRONICS, "/" + ELECTRONICS + "/" + LAPTOPS + "/"),
+    new CategoryNode(ELECTRONICS, "Electronics", null, "/" + ELECTRONICS + "/")
+  );
+
+  @Test
+  void walksChildrenAndBreadcrumbsWithoutQueries() {
+    var tree = new CategoryTree(NODES);
+
+    assertThat(tree.roots()).extracting(CategoryNode::id).containsExactly(ELECTRONICS);
+    assertThat(tree.children(ELECTRONICS)).extracting(CategoryNode::id).containsExactly(LAPTOPS, PHONES);
+    assertThat(tree.children(ANDROID)).isEmpty();
+    assertThat(tree.breadcrumb(ANDROID)).extracting(CategoryNode::id).containsExactly(ELECTRONICS, PHONES, ANDROID);
+    assertThat(tree.breadcrumb(UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  void survivesJsonRoundTripThroughTheSharedTier() throws Exception {
+    var objectMapper = new ObjectMapper();
+    var copy = objectMapper.readValue(objectMapper.writeValueAsBytes(new CategoryTree(NODES)), CategoryTree.class);
+
+    assertThat(copy.nodes()).containsExactlyElementsOf(NODES);
+    assertThat(copy.breadcrumb(ANDROID)).extracting(CategoryNode::name).containsExactly("Electronics", "Phones", "Android");
+  }
+}
@@ -0,0 +1,99 @@
+package dev.rayhan.spring_store.apis.inventory;
+
+import dev.rayhan.spring_store.apis.inventory.entities.InventoryReservation;
+import dev.rayhan.spring_store.apis.inventory.repositories.InventoryReservationRepository;
+import dev.rayhan.spring_store.apis.inventory.repositories.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryServiceTests {
+  private static final UUID PRODUCT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private static final UUID CART = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+  private final StockRepository stockRepository = mock(StockRepository.class);
+  private final InventoryReservationRepository reservationRepository = mock(InventoryReservationRepository.class);
+  private final InventoryService inventoryService = new InventoryService(stockRepository, reservationRepository, new InventoryProperties());
+
+  @Test
+  void spreadsAQuantityNoSingleShardHoldsOverSeveralShards() {
+    // shards hold 3, 0 and 4: no single one covers 6
+    when(stockRepository.decrementShard(eq(PRODUCT), anyInt(), eq(6))).thenReturn(0);
+    when(stockRepository.lockShards(PRODUCT)).thenReturn(List.of(shard(0, 3), shard(1, 0), shard(2, 4)));
+
+    inventoryService.reserve(PRODUCT, 3, CART, 6);
+
+    verify(stockRepository).decrementShard(PRODUCT, 0, 3);
+    verify(stockRepository).decrementShard(PRODUCT, 2, 3);
+    var reservations = ArgumentCaptor.forClass(InventoryReservation.class);
+    verify(reservationRepository, times(2)).save(reservations.capture());
+    assertThat(reservations.getAllValues())
+      .extracting(InventoryReservation::getShard, InventoryReservation::getQuantity)
+      .containsExactly(tuple(0, 3), tuple(2, 3));
+  }
+
+  @Test
+  void takesNothingWhenTheShardsTogetherFallShort() {
+    when(stockRepository.decrementShard(eq(PRODUCT), anyInt(), eq(8))).thenReturn(0);
+    when(stockRepository.lockShards(PRODUCT)).thenReturn(List.of(shard(0, 3), shard(1, 4)));
+
+    assertThatThrownBy(() -> inventoryService.reserve(PRODUCT, 2, CART, 8))
+      .isInstanceOf(ResponseStatusException.class)
+      .hasMessageContaining("Out of stock");
+    verify(stockRepository, never()).decrementShard(eq(PRODUCT), anyInt(), eq(3));
+    verify(reservationRepository, never()).save(any());
+  }
+
+  @Test
+  void refusesToReshardWhileReservationsAreOutstanding() {
+    when(stockRepository.lockStockShards(PRODUCT)).thenReturn(Optional.of(3));
+    when(reservationRepository.existsByProductId(PRODUCT)).thenReturn(true);
+
+    assertThatThrownBy(() -> inventoryService.setStock(PRODUCT, 10, 4))
+      .isInstanceOf(ResponseStatusException.class)
+      .hasMessageContaining("reservations");
+    verify(stockRepository, never()).setStock(any(), anyInt(), anyInt());
+    verify(stockRepository, never()).createShards(any(), anyInt(), anyInt());
+  }
+
+  @Test
+  void restocksTheSameLayoutUnderOutstandingReservations() {
+    when(stockRepository.lockStockShards(PRODUCT)).thenReturn(Optional.of(3));
+    when(reservationRepository.existsByProductId(PRODUCT)).thenReturn(true);
+
+    inventoryService.setStock(PRODUCT, 10, 3);
+
+    verify(stockRepository).setStock(PRODUCT, 0, 3);
+    verify(stockRepository).createShards(PRODUCT, 10, 3);
+  }
+
+  private static StockRepository.ShardStock shard(int shard, int stock) {
+    return new StockRepository.ShardStock() {
+      @Override
+      public int getShard() {
+        return shard;
+      }
+
+      @Override
+      public int getStock() {
+        return stock;
+      }
+    };
+  }
+}
@@ -0,0 +1,57 @@
+package dev.rayhan.spring_store.apis.live;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class LiveUpdateHubTests {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final LiveUpdateHub hub = new LiveUpdateHub(properties(), meterRegistry);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void shutdown() {
+    release.countDown();
+    hub.shutdown();
+  }
+
+  @Test
+  void dropsASubscriberStuckInAWriteWithoutWaitingOnIt() throws Exception {
+    var emitter = hub.subscribe(Set.of("products"));
+    // stands in for a send stuck on a dead socket: it holds the emitter's monitor for good
+    var locked = new CountDownLatch(1);
+    Thread.ofPlatform().daemon().start(() -> {
+      synchronized (emitter) {
+        locked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    locked.await();
+
+    hub.publish("products", "p1", "price", 1);
+    // longer than the slow consumer timeout, so the next publish drops the subscriber
+    Thread.sleep(200);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(2), () -> hub.publish("products", "p1", "price", 2));
+    assertThat(hub.hasSubscribers("products")).isFalse();
+    assertThat(meterRegistry.counter("store.live.dropped").count()).isEqualTo(1);
+  }
+
+  private static LiveProperties properties() {
+    var properties = new LiveProperties();
+    properties.setCoalesceWindow(Duration.ofMillis(1));
+    properties.setSlowConsumerTimeout(Duration.ofMillis(50));
+    return properties;
+  }
+}
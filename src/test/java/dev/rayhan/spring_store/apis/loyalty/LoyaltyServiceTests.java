@@ -0,0 +1,163 @@
+package dev.rayhan.spring_store.apis.loyalty;
+
+import dev.rayhan.spring_store.PostgresTestDatabase;
+import dev.rayhan.spring_store.apis.loyalty.repositories.LoyaltyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the ledger and balance statements against Postgres, where the
+ * ON CONFLICT and row-lock behaviour the balance relies on is real.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// every award and redemption commits on its own thread
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({LoyaltyService.class, LoyaltyServiceTests.Config.class})
+@EnableConfigurationProperties(LoyaltyProperties.class)
+class LoyaltyServiceTests {
+  @Autowired
+  private LoyaltyService loyaltyService;
+  @Autowired
+  private LoyaltyRepository loyaltyRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final UUID userId = UUID.randomUUID();
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    PostgresTestDatabase.register(registry, "loyalty");
+  }
+
+  @BeforeEach
+  void user() {
+    jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (?, 'Ada', ?, 'secret')",
+      userId, userId + "@example.com");
+  }
+
+  @Test
+  void concurrentAwardsAndRedemptionsKeepTheBalanceEqualToTheLedger() throws Exception {
+    loyaltyService.award(userId, 100, "signup", "seed");
+    var awarded = new AtomicInteger();
+    var redeemed = new AtomicInteger();
+    var refused = new AtomicInteger();
+    var duplicatesApplied = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    var tasks = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < 40; i++) {
+      var n = i;
+      tasks.add(() -> {
+        start.await();
+        loyaltyService.award(userId, 10, "order", "award:" + n);
+        awarded.incrementAndGet();
+        return null;
+      });
+      tasks.add(() -> {
+        start.await();
+        try {
+          loyaltyService.redeem(userId, 15, "voucher", "redeem:" + n);
+          redeemed.incrementAndGet();
+        } catch (ResponseStatusException e) {
+          assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+          refused.incrementAndGet();
+        }
+        return null;
+      });
+      tasks.add(() -> {
+        start.await();
+        if (loyaltyService.award(userId, 7, "order", "retried").applied()) {
+          duplicatesApplied.incrementAndGet();
+        }
+        return null;
+      });
+    }
+
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      var futures = tasks.stream().map(executor::submit).toList();
+      start.countDown();
+      for (var future : futures) {
+        future.get();
+      }
+    }
+
+    long balance = loyaltyRepository.findBalance(userId).orElseThrow();
+    assertThat(duplicatesApplied).hasValue(1);
+    assertThat(redeemed.get() + refused.get()).isEqualTo(40);
+    assertThat(balance)
+      .isEqualTo(ledgerSum())
+      .isEqualTo(100 + 7 + 10L * awarded.get() - 15L * redeemed.get())
+      .isNotNegative();
+    // a refused redemption leaves no ledger row behind
+    assertThat(ledgerRows()).isEqualTo(1 + 1 + awarded.get() + redeemed.get());
+    assertThat(loyaltyRepository.countDriftedBalances()).isZero();
+  }
+
+  @Test
+  void aRepeatedReferenceIsANoOp() {
+    var first = loyaltyService.award(userId, 50, "order", "order:1");
+    var again = loyaltyService.award(userId, 50, "order", "order:1");
+
+    assertThat(first.applied()).isTrue();
+    assertThat(again.applied()).isFalse();
+    assertThat(again.balance()).isEqualTo(50);
+    assertThat(ledgerRows()).isOne();
+  }
+
+  @Test
+  void anOverdrawIsAConflictAndChangesNothing() {
+    loyaltyService.award(userId, 20, "order", "order:1");
+
+    assertThatThrownBy(() -> loyaltyService.redeem(userId, 21, "voucher", "voucher:1"))
+      .isInstanceOfSatisfying(ResponseStatusException.class,
+        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+    assertThat(loyaltyRepository.findBalance(userId)).contains(20L);
+    assertThat(ledgerSum()).isEqualTo(20);
+    assertThat(ledgerRows()).isOne();
+  }
+
+  private long ledgerSum() {
+    return jdbcTemplate.queryForObject(
+      "SELECT coalesce(sum(delta), 0) FROM loyalty_transactions WHERE user_id = ?", Long.class, userId);
+  }
+
+  private int ledgerRows() {
+    return jdbcTemplate.queryForObject(
+      "SELECT count(*) FROM loyalty_transactions WHERE user_id = ?", Integer.class, userId);
+  }
+
+  @TestConfiguration
+  static class Config {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package dev.rayhan.spring_store.apis.order;
+
+import dev.rayhan.spring_store.PostgresTestDatabase;
+import dev.rayhan.spring_store.apis.cart.dtos.CheckoutLine;
+import dev.rayhan.spring_store.apis.cart.entities.Cart;
+import dev.rayhan.spring_store.apis.cart.repositories.CartItemRepository;
+import dev.rayhan.spring_store.apis.cart.repositories.CartRepository;
+import dev.rayhan.spring_store.apis.inventory.InventoryProperties;
+import dev.rayhan.spring_store.apis.inventory.InventoryService;
+import dev.rayhan.spring_store.apis.loyalty.LoyaltyService;
+import dev.rayhan.spring_store.apis.order.dtos.OrderItemDto;
+import dev.rayhan.spring_store.apis.order.mappers.OrderMapperImpl;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, OrderMapperImpl.class, InventoryService.class})
+@EnableConfigurationProperties(InventoryProperties.class)
+class OrderServiceTests {
+  @Autowired
+  private OrderService orderService;
+  @Autowired
+  private InventoryService inventoryService;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @MockitoBean
+  private LoyaltyService loyaltyService;
+  @MockitoBean
+  private TieredCache cache;
+
+  private final UUID categoryId = UUID.randomUUID();
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    PostgresTestDatabase.register(registry, "orders");
+  }
+
+  @Test
+  void checkoutSnapshotsPricesAndCommitsTheCartsReservations() {
+    var tracked = product(10, 5);
+    var untracked = product(3, null);
+    var cartId = cart();
+    addItem(cartId, tracked, 2);
+    addItem(cartId, untracked, 1);
+    inventoryService.reserve(tracked, 0, cartId, 2);
+
+    var order = orderService.checkout(cartId, null);
+    // later repricing must not reach the placed order
+    jdbcTemplate.update("UPDATE products SET price = 99 WHERE id = ?", tracked);
+    entityManager.flush();
+    entityManager.clear();
+    var placed = orderService.getOrder(order.getId());
+
+    assertThat(placed.getTotalPrice()).isEqualByComparingTo("23.00");
+    assertThat(placed.getItemCount()).isEqualTo(3);
+    assertThat(placed.getItems())
+      .extracting(OrderItemDto::getProductId, OrderItemDto::getUnitPrice, OrderItemDto::getLineTotal)
+      .containsExactlyInAnyOrder(
+        tuple(tracked, new BigDecimal("10.00"), new BigDecimal("20.00")),
+        tuple(untracked, new BigDecimal("3.00"), new BigDecimal("3.00")));
+    // the reservation is turned into the sale: taken once, not again and not put back
+    assertThat(stockOf(tracked)).isEqualTo(3);
+    assertThat(stockOf(untracked)).isNull();
+    assertThat(count("SELECT count(*) FROM inventory_reservations WHERE cart_id = ?", cartId)).isZero();
+    assertThat(count("SELECT count(*) FROM cart_items WHERE cart_id = ?", cartId)).isZero();
+  }
+
+  @Test
+  void checkoutIssuesTheSameStatementsForOneLineAsForMany() {
+    assertThat(statementsToCheckout(5)).isEqualTo(statementsToCheckout(1));
+  }
+
+  @Test
+  void checkoutRejectsALineWithoutAPrice() {
+    var cartRepository = mock(CartRepository.class);
+    var cartItemRepository = mock(CartItemRepository.class);
+    var inventory = mock(InventoryService.class);
+    var cartId = UUID.randomUUID();
+    when(cartRepository.findByIdForUpdate(cartId)).thenReturn(Optional.of(new Cart()));
+    when(cartItemRepository.findCheckoutLines(cartId))
+      .thenReturn(List.of(new CheckoutLine(UUID.randomUUID(), "Unpriced", null, 1, 0)));
+    var service = new OrderService(cartRepository, cartItemRepository, null, new OrderMapperImpl(), inventory, loyaltyService, cache);
+
+    assertThatThrownBy(() -> service.checkout(cartId, null))
+      .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    verifyNoInteractions(inventory);
+  }
+
+  private long statementsToCheckout(int lines) {
+    var cartId = cart();
+    for (int i = 0; i < lines; i++) {
+      var productId = product(10 + i, 10);
+      addItem(cartId, productId, 1);
+      inventoryService.reserve(productId, 0, cartId, 1);
+    }
+    entityManager.flush();
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    orderService.checkout(cartId, null);
+    entityManager.flush();
+
+    assertThat(count("SELECT count(*) FROM order_items i JOIN orders o ON o.id = i.order_id WHERE o.cart_id = ?", cartId))
+      .isEqualTo(lines);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private UUID product(int price, Integer stock) {
+    if (count("SELECT count(*) FROM categories WHERE id = ?", categoryId) == 0) {
+      jdbcTemplate.update("INSERT INTO categories (id, name, path) VALUES (?, 'Books', ?)", categoryId, "/" + categoryId + "/");
+    }
+    var id = UUID.randomUUID();
+    jdbcTemplate.update("INSERT INTO products (id, name, price, category_id, stock) VALUES (?, ?, ?, ?, ?)",
+      id, "Product " + id, price, categoryId, stock);
+    return id;
+  }
+
+  private UUID cart() {
+    var id = UUID.randomUUID();
+    jdbcTemplate.update("INSERT INTO carts (id) VALUES (?)", id);
+    return id;
+  }
+
+  private void addItem(UUID cartId, UUID productId, int quantity) {
+    jdbcTemplate.update("INSERT INTO cart_items (cart_id, product_id, quantity) VALUES (?, ?, ?)", cartId, productId, quantity);
+  }
+
+  private Integer stockOf(UUID productId) {
+    return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+  }
+
+  private long count(String sql, Object... args) {
+    return jdbcTemplate.queryForObject(sql, Long.class, args);
+  }
+}
@@ -0,0 +1,213 @@
+package dev.rayhan.spring_store.apis.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.PostgresTestDatabase;
+import dev.rayhan.spring_store.apis.category.CategoryService;
+import dev.rayhan.spring_store.apis.inventory.InventoryService;
+import dev.rayhan.spring_store.apis.product.dtos.CreateProductPayload;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListFilterRequestQueryParam;
+import dev.rayhan.spring_store.apis.product.dtos.UpdateProductPayload;
+import dev.rayhan.spring_store.apis.product.mappers.ProductMapperImpl;
+import dev.rayhan.spring_store.apis.product.popularity.PopularityCounters;
+import dev.rayhan.spring_store.apis.product.popularity.PopularityProperties;
+import dev.rayhan.spring_store.apis.product.related.RelatedProductsIndex;
+import dev.rayhan.spring_store.apis.product.repositories.PriceHistoryRepository;
+import dev.rayhan.spring_store.common.PageSizeGuard;
+import dev.rayhan.spring_store.common.SingleFlight;
+import dev.rayhan.spring_store.common.TotalCountEstimator;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import dev.rayhan.spring_store.common.dtos.ProductSortByColumn;
+import dev.rayhan.spring_store.common.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * product_listing and product_counters are written with ON CONFLICT, so
+ * this runs on Postgres.
+ * Category renames are covered by CategoryServiceTests.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductService.class, ProductMapperImpl.class})
+class ProductListingSyncTests {
+  @Autowired
+  private ProductService productService;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @MockitoBean
+  private PriceHistoryRepository priceHistoryRepository;
+  @MockitoBean
+  private RelatedProductsIndex relatedProductsIndex;
+  @MockitoBean
+  private CategoryService categoryService;
+  @MockitoBean
+  private InventoryService inventoryService;
+  @MockitoBean
+  private PageSizeGuard pageSizeGuard;
+  @MockitoBean
+  private ObjectMapper objectMapper;
+  @MockitoBean
+  private OutboxPublisher outboxPublisher;
+  @MockitoBean
+  private TieredCache cache;
+  @MockitoBean
+  private SingleFlight singleFlight;
+  @MockitoBean
+  private TotalCountEstimator totalCountEstimator;
+
+  private final UUID categoryId = UUID.randomUUID();
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    PostgresTestDatabase.register(registry, "listing");
+  }
+
+  @BeforeEach
+  void category() {
+    jdbcTemplate.update("INSERT INTO categories (id, name, path) VALUES (?, 'Shoes', ?)", categoryId, "/" + categoryId + "/");
+  }
+
+  @Test
+  void createWritesTheListingRow() {
+    var product = productService.createProduct(createPayload("Runner", 80));
+
+    assertThat(listing(product.getId()))
+      .contains(entry("name", "Runner"), entry("price", 80), entry("category_id", categoryId), entry("category_name", "Shoes"));
+  }
+
+  @Test
+  void updateRewritesTheListingRow() {
+    var product = productService.createProduct(createPayload("Runner", 80));
+
+    var update = new UpdateProductPayload();
+    update.setName("Trail runner");
+    update.setPrice(95.0);
+    productService.updateProduct(product.getId(), update);
+
+    assertThat(listing(product.getId())).contains(entry("name", "Trail runner"), entry("price", 95));
+  }
+
+  @Test
+  void deleteRemovesTheListingRowThroughTheCascade() {
+    var product = productService.createProduct(createPayload("Runner", 80));
+
+    productService.deleteProduct(product.getId());
+    entityManager.flush();
+
+    assertThat(jdbcTemplate.queryForObject(
+      "SELECT count(*) FROM product_listing WHERE product_id = ?", Integer.class, product.getId())).isZero();
+  }
+
+  @Test
+  // both sides have to commit, so the rows are cleaned up by hand
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void anUpdateWaitsForARepricingChunkInsteadOfRevertingItsPrice() throws Exception {
+    var product = productService.createProduct(createPayload("Runner", 80));
+    var locked = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    try {
+      // stands in for a repricing chunk between its FOR UPDATE and its commit
+      var chunk = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.queryForList("SELECT id FROM products WHERE id = ? FOR UPDATE", product.getId());
+        jdbcTemplate.update("UPDATE products SET price = 120 WHERE id = ?", product.getId());
+        locked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+      locked.await();
+
+      var update = new UpdateProductPayload();
+      update.setName("Trail runner");
+      var patch = CompletableFuture.runAsync(() -> productService.updateProduct(product.getId(), update));
+      while (jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class) == 0) {
+        Thread.sleep(10);
+      }
+      release.countDown();
+      chunk.get(5, TimeUnit.SECONDS);
+      patch.get(5, TimeUnit.SECONDS);
+
+      assertThat(jdbcTemplate.queryForMap("SELECT name, price FROM products WHERE id = ?", product.getId()))
+        .contains(entry("name", "Trail runner"), entry("price", 120));
+    } finally {
+      release.countDown();
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE id = ?", categoryId);
+      });
+    }
+  }
+
+  @Test
+  void popularitySortFollowsTheFlushedCounters() {
+    var quiet = productService.createProduct(createPayload("Quiet", 10));
+    var hot = productService.createProduct(createPayload("Hot", 10));
+    var warm = productService.createProduct(createPayload("Warm", 10));
+    var meterRegistry = new SimpleMeterRegistry();
+    var counters = new PopularityCounters(jdbcTemplate, transactionTemplate, new PopularityProperties(), meterRegistry);
+    for (int i = 0; i < 5; i++) {
+      counters.recordView(hot.getId());
+    }
+    counters.recordView(warm.getId());
+    // a product deleted since it was viewed
+    counters.recordView(UUID.randomUUID());
+    counters.flush();
+
+    when(pageSizeGuard.resolveLimit(any(), any())).thenReturn(10);
+    when(singleFlight.execute(any(), any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+    when(cache.get(any(), any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+    var filter = new ProductListFilterRequestQueryParam();
+    filter.setSortBy(ProductSortByColumn.popularity);
+
+    assertThat(productService.getAllProducts(filter).getBody().items())
+      .extracting(ProductListDto::getId)
+      .containsExactly(hot.getId(), warm.getId(), quiet.getId());
+    assertThat(meterRegistry.counter("store.popularity.flush.failed").count()).isZero();
+  }
+
+  private Map<String, Object> listing(UUID productId) {
+    return jdbcTemplate.queryForMap(
+      "SELECT name, price, category_id, category_name FROM product_listing WHERE product_id = ?", productId);
+  }
+
+  private CreateProductPayload createPayload(String name, double price) {
+    var payload = new CreateProductPayload();
+    payload.setName(name);
+    payload.setPrice(price);
+    payload.setCategoryId(categoryId);
+    return payload;
+  }
+}
@@ -0,0 +1,64 @@
+package dev.rayhan.spring_store.apis.product.popularity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PopularityCountersTests {
+
+    @Test
+    void scoreDoublesPerHalfLifeSoOlderEventsDecay() {
+        var properties = new PopularityProperties();
+        properties.setHalfLife(Duration.ofDays(3));
+        var counters = new PopularityCounters(null, null, properties, new SimpleMeterRegistry());
+        var at = PopularityCounters.EPOCH.plus(Duration.ofDays(30));
+
+        // one event now equals two events one half-life ago
+        assertThat(counters.score(1, at.plus(Duration.ofDays(3))))
+                .isCloseTo(counters.score(2, at), within(1e-9));
+        assertThat(counters.score(5, at)).isGreaterThan(counters.score(1, at));
+    }
+
+    @Test
+    void drainingNeverLosesIncrementsThatRaceARetiredEntry() throws Exception {
+        var counters = new PopularityCounters(null, null, new PopularityProperties(), new SimpleMeterRegistry());
+        var products = IntStream.range(0, 64).mapToObj(i -> new UUID(0, i)).toList();
+        int threads = 4;
+        int viewsPerThread = 200_000;
+
+        var drained = new LongAdder();
+        var done = new AtomicBoolean();
+        // drains back to back, so quiet products keep getting retired while others hit them
+        var drainer = new Thread(() -> {
+            while (!done.get()) {
+                counters.drain().forEach(delta -> drained.add(delta.views()));
+            }
+        });
+        drainer.start();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    for (int i = 0; i < viewsPerThread; i++) {
+                        counters.recordView(products.get(random.nextInt(products.size())));
+                    }
+                });
+            }
+        }
+        done.set(true);
+        drainer.join();
+        counters.drain().forEach(delta -> drained.add(delta.views()));
+
+        assertThat(drained.sum()).isEqualTo((long) threads * viewsPerThread);
+    }
+}
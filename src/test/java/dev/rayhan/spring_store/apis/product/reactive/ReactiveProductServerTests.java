@@ -0,0 +1,42 @@
+package dev.rayhan.spring_store.apis.product.reactive;
+
+import dev.rayhan.spring_store.apis.product.mappers.ProductMapper;
+import dev.rayhan.spring_store.common.PageSizeGuard;
+import dev.rayhan.spring_store.common.PaginationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.mockito.Mockito.mock;
+
+class ReactiveProductServerTests {
+  private final PaginationProperties pagination = new PaginationProperties();
+  private final WebTestClient client = WebTestClient.bindToRouterFunction(ReactiveProductServer.router(
+    new ReactiveProductHandler(
+      mock(ReactiveProductRepository.class),
+      mock(ProductMapper.class),
+      new PageSizeGuard(pagination, new SimpleMeterRegistry()),
+      Validation.buildDefaultValidatorFactory().getValidator()
+    )
+  )).build();
+
+  @Test
+  void answersAnUnparsableParameterWithTheErrorBody() {
+    client.get().uri("/products/?page=abc").exchange()
+      .expectStatus().isBadRequest()
+      .expectBody()
+      .jsonPath("$.error").isEqualTo("Invalid value for page")
+      .jsonPath("$.path").isEqualTo("/products/");
+  }
+
+  @Test
+  void answersARejectedPageSizeWithTheErrorBody() {
+    pagination.setOverflow(PaginationProperties.OverflowMode.REJECT);
+
+    client.get().uri("/products/?limit=1000").exchange()
+      .expectStatus().isBadRequest()
+      .expectBody()
+      .jsonPath("$.error").isEqualTo("Limit must be at most 100");
+  }
+}
@@ -0,0 +1,64 @@
+package dev.rayhan.spring_store.apis.product.related;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoOccurrenceCounterTests {
+
+    @Test
+    void ranksPartnersByCartsSharedAcrossShards() {
+        var baskets = List.of(
+                new int[]{0, 1, 2},
+                new int[]{0, 1},
+                new int[]{0, 1, 3},
+                new int[]{0, 2},
+                new int[]{2, 3}
+        );
+
+        var pool = new ForkJoinPool(3);
+        try {
+            var result = new CoOccurrenceCounter(2, 1).count(baskets, 4, pool);
+
+            assertThat(result.related()[0]).containsExactly(1, 2);
+            assertThat(result.counts()[0]).containsExactly(3, 2);
+            // three partners seen once each: ties go to the lower index
+            assertThat(result.related()[3]).containsExactly(0, 1);
+            assertThat(result.counts()[3]).containsExactly(1, 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void dropsPairsBelowMinCount() {
+        var baskets = List.of(new int[]{0, 1}, new int[]{0, 1}, new int[]{1, 2});
+
+        var pool = new ForkJoinPool(2);
+        try {
+            var result = new CoOccurrenceCounter(10, 2).count(baskets, 3, pool);
+
+            assertThat(result.related()[1]).containsExactly(0);
+            assertThat(result.related()[2]).isNull();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void longIntMapKeepsCountsAcrossResizesAndZeroKey() {
+        var map = new LongIntHashMap(4);
+        for (long key = 0; key < 10_000; key++) {
+            map.addTo(key << 32 | key, 1);
+            map.addTo(key << 32 | key, 2);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(map.get(0)).isEqualTo(3);
+        assertThat(map.get(9_999L << 32 | 9_999L)).isEqualTo(3);
+        assertThat(map.get(42)).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import dev.rayhan.spring_store.apis.category.CategoryService;
+import dev.rayhan.spring_store.apis.product.dtos.RepricingJobDto;
+import dev.rayhan.spring_store.common.cache.TieredCache;
+import dev.rayhan.spring_store.common.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkRepricerTests {
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+  @Test
+  void shutdownFailsTheChunksItDiscardsInsteadOfLeavingTheJobWaiting() throws Exception {
+    var properties = new RepricingProperties();
+    properties.setChunkSize(1);
+    properties.setParallelism(1);
+    var repricer = repricer(properties);
+    // every chunk hangs in its transaction until it is interrupted
+    var started = new CountDownLatch(2);
+    when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+      started.countDown();
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted", e);
+      }
+      return 0;
+    });
+    // one chunk on the worker, one queued, one run by the job thread, one submitted after shutdown
+    var csv = IntStream.range(0, 4).mapToObj(i -> UUID.randomUUID() + ",100").collect(Collectors.joining("\n"));
+
+    var job = repricer.submitPriceList(csv);
+    started.await();
+    repricer.shutdown();
+
+    var finished = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+      var dto = repricer.find(job.id()).orElseThrow();
+      while (dto.finishedAt() == null) {
+        Thread.sleep(10);
+        dto = repricer.find(job.id()).orElseThrow();
+      }
+      return dto;
+    });
+    assertThat(finished.status()).isEqualTo(RepricingJobDto.Status.FAILED);
+    assertThat(finished.chunksFailed()).isEqualTo(4);
+    assertThat(finished.chunksDone()).isZero();
+  }
+
+  private BulkRepricer repricer(RepricingProperties properties) {
+    when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+    return new BulkRepricer(jdbcTemplate, transactionTemplate, mock(CategoryService.class), mock(OutboxPublisher.class),
+      mock(TieredCache.class), properties, new SimpleMeterRegistry());
+  }
+}
@@ -0,0 +1,38 @@
+package dev.rayhan.spring_store.apis.product.repricing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceRuleTests {
+  private static final UUID PRODUCT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+  @Test
+  void appliesChangesOnlyInsideThePriceRange() {
+    var discount = PriceRule.percent(-15, 100.0, 1000.0);
+
+    assertThat(discount.apply(PRODUCT, 199)).isEqualTo(169);
+    assertThat(discount.apply(PRODUCT, 99)).isNull();
+    assertThat(discount.apply(PRODUCT, 1001)).isNull();
+    assertThat(PriceRule.absolute(-50, null, null).apply(PRODUCT, 40)).isNull();
+    assertThat(PriceRule.absolute(25, null, null).apply(PRODUCT, 40)).isEqualTo(65);
+  }
+
+  @Test
+  void parsesPriceListsWithOptionalHeader() {
+    var prices = PriceListCsv.parse("productId,price\n" + PRODUCT + ", 120\n\n" + PRODUCT + ",130\n", 10);
+
+    assertThat(prices).containsExactly(Map.entry(PRODUCT, 130L));
+    assertThatThrownBy(() -> PriceListCsv.parse(PRODUCT + ",12.5", 10))
+      .isInstanceOf(ResponseStatusException.class)
+      .hasMessageContaining("line 1");
+    assertThatThrownBy(() -> PriceListCsv.parse("productId,price\n", 10))
+      .isInstanceOf(ResponseStatusException.class)
+      .hasMessageContaining("empty");
+  }
+}
@@ -0,0 +1,89 @@
+package dev.rayhan.spring_store.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        var executions = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.execute("list", "page-1", Duration.ofSeconds(5), () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "rows";
+            }));
+            started.await();
+
+            var results = new ConcurrentLinkedQueue<String>();
+            var followers = new ArrayList<Thread>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(Thread.ofPlatform().start(() -> results.add(
+                        singleFlight.execute("list", "page-1", Duration.ofSeconds(5), () -> {
+                            executions.incrementAndGet();
+                            return "other";
+                        }))));
+            }
+            // every follower is parked on the leader's result
+            for (var follower : followers) {
+                while (follower.getState() != Thread.State.TIMED_WAITING) {
+                    Thread.onSpinWait();
+                }
+            }
+            release.countDown();
+
+            assertThat(leader.get()).isEqualTo("rows");
+            for (var follower : followers) {
+                follower.join();
+            }
+            assertThat(results).hasSize(10).containsOnly("rows");
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.counter("store.singleflight.calls", "name", "list", "role", "coalesced").count()).isEqualTo(10);
+    }
+
+    @Test
+    void followerGivesUpAfterMaxWait() throws Exception {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> singleFlight.execute("list", "slow", Duration.ofSeconds(5), () -> {
+                started.countDown();
+                await(release);
+                return "rows";
+            }));
+            started.await();
+
+            assertThatThrownBy(() -> singleFlight.execute("list", "slow", Duration.ofMillis(50), () -> "other"))
+                    .isInstanceOf(ResponseStatusException.class);
+            release.countDown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
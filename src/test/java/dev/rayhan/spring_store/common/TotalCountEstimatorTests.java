@@ -0,0 +1,96 @@
+package dev.rayhan.spring_store.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.common.dtos.TotalCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TotalCountEstimatorTests {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TotalCountEstimator estimator =
+            new TotalCountEstimator(jdbcTemplate, new ObjectMapper(), new PaginationProperties(), meterRegistry);
+    private final AtomicInteger exactCounts = new AtomicInteger();
+
+    @Test
+    void countsExactlyBelowTheThreshold() {
+        reltuples(500L);
+
+        assertThat(estimator.tableTotal("users", () -> exactCount(498))).isEqualTo(new TotalCount(498, true));
+        assertThat(exactCounts).hasValue(1);
+        assertThat(meterRegistry.counter("store.pagination.totals", "endpoint", "users", "kind", "exact").count()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsThePlannerEstimateAboveTheThreshold() {
+        reltuples(2_000_000L);
+
+        assertThat(estimator.tableTotal("users", () -> exactCount(1_999_123))).isEqualTo(new TotalCount(2_000_000, false));
+        assertThat(exactCounts).hasValue(0);
+        assertThat(meterRegistry.counter("store.pagination.totals", "endpoint", "users", "kind", "estimated").count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsExactlyWhenTheTableWasNeverAnalyzed() {
+        reltuples(-1L);
+
+        assertThat(estimator.tableTotal("users", () -> exactCount(3))).isEqualTo(new TotalCount(3, true));
+    }
+
+    @Test
+    void estimatesAFilterFromTheExplainRowCount() {
+        explainRows(50_000);
+
+        var total = estimator.filteredTotal("products", "SELECT 1 FROM product_listing WHERE category_id = ?",
+                new Object[]{"shoes"}, () -> exactCount(49_000));
+
+        assertThat(total).isEqualTo(new TotalCount(50_000, false));
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void countsAFilterExactlyBelowTheThreshold() {
+        explainRows(40);
+
+        var total = estimator.filteredTotal("products", "SELECT 1 FROM product_listing WHERE category_id = ?",
+                new Object[]{"shoes"}, () -> exactCount(37));
+
+        assertThat(total).isEqualTo(new TotalCount(37, true));
+    }
+
+    @Test
+    void keepsTheResultForTheCacheTtl() {
+        reltuples(500L);
+
+        estimator.tableTotal("users", () -> exactCount(498));
+        estimator.tableTotal("users", () -> exactCount(499));
+
+        assertThat(exactCounts).hasValue(1);
+        verify(jdbcTemplate, times(1)).queryForObject(startsWith("SELECT reltuples"), eq(Long.class), eq("users"));
+    }
+
+    private void reltuples(long estimate) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT reltuples"), eq(Long.class), eq("users"))).thenReturn(estimate);
+    }
+
+    private void explainRows(long rows) {
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class), eq("shoes")))
+                .thenReturn("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": " + rows + "}}]");
+    }
+
+    private long exactCount(long count) {
+        exactCounts.incrementAndGet();
+        return count;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.rayhan.spring_store.common.cache;
+
+import dev.rayhan.spring_store.common.dtos.PageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredCacheTests {
+    // two instances of the app sharing one cache tier
+    private final SharedCache shared = new LocalSharedCache();
+    private final CacheProperties properties = new CacheProperties();
+    private final TieredCache nodeA = node();
+    private final TieredCache nodeB = node();
+
+    @Test
+    void secondNodeReadsFromSharedTierInsteadOfLoading() {
+        var loads = new AtomicInteger();
+
+        assertThat(get(nodeA, "1", "v1", loads)).isEqualTo("v1");
+        assertThat(get(nodeB, "1", "v2", loads)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictionReachesNearCacheOfOtherNodes() {
+        var loads = new AtomicInteger();
+        get(nodeA, "1", "v1", loads);
+        get(nodeB, "1", "v1", loads);
+
+        nodeA.evictAfterCommit("product", "1");
+
+        assertThat(get(nodeB, "1", "v2", loads)).isEqualTo("v2");
+        assertThat(get(nodeA, "1", "v3", loads)).isEqualTo("v2");
+    }
+
+    @Test
+    void valueLoadedRightAfterAnEvictionIsKeptOnlyBriefly() {
+        properties.setGuardedTtl(Duration.ZERO);
+        var loads = new AtomicInteger();
+        get(nodeA, "1", "v1", loads);
+
+        nodeA.evictAfterCommit("product", "1");
+        // nodeB still reads the old row, from a lagging replica say
+        assertThat(get(nodeB, "1", "v1", loads)).isEqualTo("v1");
+
+        assertThat(get(nodeB, "1", "v2", loads)).isEqualTo("v2");
+        assertThat(get(nodeA, "1", "v3", loads)).isEqualTo("v3");
+    }
+
+    @Test
+    void regionInvalidationDropsEveryKeyOnEveryNode() {
+        var loads = new AtomicInteger();
+        get(nodeA, "1", "a1", loads);
+        get(nodeB, "2", "b1", loads);
+
+        nodeB.invalidateAfterCommit("product");
+
+        assertThat(get(nodeA, "2", "b2", loads)).isEqualTo("b2");
+        assertThat(get(nodeB, "1", "a2", loads)).isEqualTo("a2");
+    }
+
+    @Test
+    void cachesGenericTypesThroughSharedTier() {
+        List<String> first = nodeA.get("product-list", "page-1", nodeA.listOf(String.class), () -> List.of("x", "y"));
+        List<String> second = nodeB.get("product-list", "page-1", nodeB.listOf(String.class), () -> List.of("z"));
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void cachesPageEnvelopesThroughSharedTier() {
+        var page = new PageResponse<>(List.of("x", "y"), 1, 2, true, null, null);
+        PageResponse<String> first = nodeA.get("product-list", "page-1", nodeA.typeOf(PageResponse.class, String.class), () -> page);
+        PageResponse<String> second = nodeB.get("product-list", "page-1", nodeB.typeOf(PageResponse.class, String.class), () -> null);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    private static String get(TieredCache cache, String key, String value, AtomicInteger loads) {
+        return cache.get("product", key, cache.typeOf(String.class), () -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    private TieredCache node() {
+        return new TieredCache(properties, shared, Jackson2ObjectMapperBuilder.json(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,198 @@
+package dev.rayhan.spring_store.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the dispatcher against Postgres: SKIP LOCKED and the way a failed
+ * statement poisons the rest of its transaction are what is under test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the dispatcher commits its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OutboxDispatcher.class, OutboxDispatcherTests.Config.class, OutboxDispatcherTests.RecordingListener.class})
+@EnableConfigurationProperties(OutboxProperties.class)
+@TestPropertySource(properties = "store.outbox.batch-size=2")
+class OutboxDispatcherTests {
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private RecordingListener listener;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry, "outbox");
+    }
+
+    @BeforeEach
+    void clear() {
+        outboxRepository.deleteAll();
+        listener.received.clear();
+        listener.failing.clear();
+    }
+
+    @Test
+    void deliversEveryDueEventAcrossBatches() {
+        var events = List.of(event("a"), event("b"), event("c"), event("d"), event("e"));
+
+        dispatcher.dispatch();
+
+        assertThat(listener.received).containsExactlyElementsOf(events);
+        assertThat(outboxRepository.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+    }
+
+    @Test
+    void aListenerWhoseSqlFailsOnlyFailsItsOwnEvent() {
+        var failing = event("failing");
+        var healthy = event("healthy");
+        listener.failing.add(failing);
+
+        dispatcher.dispatch();
+
+        // the failed attempt is recorded, so the event backs off instead of being redelivered on every poll
+        var failed = outboxRepository.findById(failing).orElseThrow();
+        assertThat(failed.getPublishedAt()).isNull();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(failed.getAvailableAt()).isAfter(Instant.now());
+        assertThat(outboxRepository.findById(healthy).orElseThrow().getPublishedAt()).isNotNull();
+
+        dispatcher.dispatch();
+        assertThat(listener.received).containsExactly(failing, healthy);
+    }
+
+    @Test
+    void retriesAFailedEventOnceItsBackoffHasPassed() {
+        var id = event("flaky");
+        listener.failing.add(id);
+        dispatcher.dispatch();
+
+        listener.failing.clear();
+        makeDue(id);
+        dispatcher.dispatch();
+
+        assertThat(listener.received).containsExactly(id, id);
+        var event = outboxRepository.findById(id).orElseThrow();
+        assertThat(event.getPublishedAt()).isNotNull();
+        assertThat(event.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesEventsThatUsedUpTheirAttempts() {
+        var id = event("exhausted");
+        transactionTemplate.executeWithoutResult(status -> {
+            var event = outboxRepository.findById(id).orElseThrow();
+            event.setAttempts(10);
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(listener.received).isEmpty();
+    }
+
+    @Test
+    void skipsEventsLockedByAnotherDispatcher() throws Exception {
+        var locked = event("locked");
+        var free = event("free");
+
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (var statement = connection.prepareStatement("SELECT id FROM outbox_events WHERE id = ? FOR UPDATE")) {
+                statement.setLong(1, locked);
+                statement.executeQuery().close();
+            }
+
+            dispatcher.dispatch();
+            connection.rollback();
+        }
+
+        assertThat(listener.received).containsExactly(free);
+        assertThat(outboxRepository.findById(locked).orElseThrow().getPublishedAt()).isNull();
+    }
+
+    private long event(String eventType) {
+        return transactionTemplate.execute(status -> outboxRepository.save(OutboxEvent.builder()
+                .aggregateType("test")
+                .aggregateId(UUID.randomUUID())
+                .eventType(eventType)
+                .payload("{}")
+                .build()).getId());
+    }
+
+    private void makeDue(long id) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.findById(id).orElseThrow().setAvailableAt(Instant.now().minusSeconds(1)));
+    }
+
+    static class RecordingListener {
+        final List<Long> received = new CopyOnWriteArrayList<>();
+        final Set<Long> failing = new CopyOnWriteArraySet<>();
+        private final OutboxRepository outboxRepository;
+
+        RecordingListener(OutboxRepository outboxRepository) {
+            this.outboxRepository = outboxRepository;
+        }
+
+        @EventListener
+        void on(OutboxMessage message) {
+            received.add(message.id());
+            if (failing.contains(message.id())) {
+                // too long for aggregate_type: the statement fails inside the delivery transaction
+                outboxRepository.save(OutboxEvent.builder()
+                        .aggregateType("x".repeat(100))
+                        .aggregateId(UUID.randomUUID())
+                        .eventType("echo")
+                        .payload("{}")
+                        .build());
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
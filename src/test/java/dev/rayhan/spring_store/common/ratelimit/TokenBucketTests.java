@@ -0,0 +1,32 @@
+package dev.rayhan.spring_store.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        var bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void refillsOverTimeAndReportsFullWhenIdle() {
+        var bucket = new TokenBucket(2, 10, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(0)).isPositive();
+        assertThat(bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+        assertThat(bucket.isFull(TimeUnit.MILLISECONDS.toNanos(100))).isFalse();
+        assertThat(bucket.isFull(TimeUnit.SECONDS.toNanos(1))).isTrue();
+    }
+}
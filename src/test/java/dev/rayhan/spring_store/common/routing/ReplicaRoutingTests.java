@@ -0,0 +1,76 @@
+package dev.rayhan.spring_store.common.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var primaryDataSource = h2("primary");
+        var replicaDataSource = h2("replica");
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replication_lag (seconds DOUBLE)");
+        replica.execute("INSERT INTO replication_lag VALUES (0)");
+
+        var properties = new ReplicaRoutingProperties();
+        properties.setLagQuery("SELECT seconds FROM replication_lag");
+        lagMonitor = new ReplicaLagMonitor(Map.of("replica-1", replicaDataSource), properties, meterRegistry);
+        lagMonitor.check();
+
+        var router = new ReplicaRouter(primaryDataSource, Map.of("replica-1", replicaDataSource), lagMonitor, meterRegistry);
+        var dataSource = ReplicaRoutingConfiguration.readWriteDataSource(primaryDataSource, router);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertThat(nodeIn(true)).isEqualTo("replica");
+        assertThat(nodeIn(false)).isEqualTo("primary");
+        assertThat(meterRegistry.counter("store.datasource.routed.reads", "target", "replica-1").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaLags() {
+        replica.update("UPDATE replication_lag SET seconds = 60");
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isHealthy("replica-1")).isFalse();
+        assertThat(nodeIn(true)).isEqualTo("primary");
+
+        replica.update("UPDATE replication_lag SET seconds = 0");
+        lagMonitor.check();
+
+        assertThat(nodeIn(true)).isEqualTo("replica");
+    }
+
+    private String nodeIn(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
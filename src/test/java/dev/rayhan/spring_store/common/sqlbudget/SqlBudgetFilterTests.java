@@ -0,0 +1,81 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlBudgetFilterTests {
+    private final SqlBudgetProperties properties = new SqlBudgetProperties();
+    private final SqlBudgetViolations violations = new SqlBudgetViolations();
+    private final SqlBudgetFilter filter = new SqlBudgetFilter(properties, new SimpleMeterRegistry(), violations);
+    private final JdbcTemplate jdbcTemplate;
+
+    SqlBudgetFilterTests() {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-budget;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(ProxyDataSourceBuilder.create(h2).listener(new SqlStatementListener()).build());
+        properties.setFailOnViolation(true);
+        properties.getEndpoints().put("GET /products/", 2);
+    }
+
+    @Test
+    void overBudgetRequestAfterTheResponseIsCommittedFailsThroughTheViolations() throws Exception {
+        var response = get(3);
+
+        // the client already got its 200, only the recorded violation can fail the test
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThatThrownBy(violations::assertNone)
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("GET /products/ issued 3 SQL statements (budget 2");
+        // reported once, the next test method starts clean
+        violations.assertNone();
+    }
+
+    @Test
+    void requestWithinBudgetRecordsNothing() throws Exception {
+        get(2);
+
+        assertThat(violations.drain()).isEmpty();
+    }
+
+    @Test
+    void violationsAreOnlyLoggedWhenFailOnViolationIsOff() throws Exception {
+        properties.setFailOnViolation(false);
+
+        get(3);
+
+        assertThat(violations.drain()).isEmpty();
+    }
+
+    private MockHttpServletResponse get(int statements) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/products/");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/products/");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                for (int i = 0; i < statements; i++) {
+                    jdbcTemplate.queryForObject("SELECT " + i, Integer.class);
+                }
+                resp.getWriter().write("[]");
+                resp.flushBuffer();
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,23 @@
+package dev.rayhan.spring_store.common.sqlbudget;
+
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+
+/**
+ * Fails a Spring test whose requests went over their SQL budget while
+ * {@code store.sql-budget.fail-on-violation} was on. Registered for every
+ * test in {@code META-INF/spring.factories}.
+ */
+public class SqlBudgetTestExecutionListener implements TestExecutionListener {
+
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        // never load a context just to look for violations
+        if (!testContext.hasApplicationContext()) {
+            return;
+        }
+        testContext.getApplicationContext()
+                .getBeanProvider(SqlBudgetViolations.class)
+                .ifAvailable(SqlBudgetViolations::assertNone);
+    }
+}
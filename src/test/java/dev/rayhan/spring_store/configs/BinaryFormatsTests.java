@@ -0,0 +1,59 @@
+package dev.rayhan.spring_store.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rayhan.spring_store.apis.product.dtos.ProductListDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFormatsTests {
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+    private final ObjectMapper smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+
+    @Test
+    void binaryFormatsRoundTripAndAreSmallerThanJson() throws Exception {
+        var page = productPage(100);
+
+        var jsonBytes = json.writeValueAsBytes(page);
+        var cborBytes = cbor.writeValueAsBytes(page);
+        var smileBytes = smile.writeValueAsBytes(page);
+
+        assertThat(cbor.readValue(cborBytes, ProductListDto[].class)[0].getCategoryId()).isEqualTo(page.get(0).getCategoryId());
+        assertThat(smile.readValue(smileBytes, ProductListDto[].class)[0].getCategoryId()).isEqualTo(page.get(0).getCategoryId());
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(smileBytes.length).isLessThan(jsonBytes.length);
+        assertThat(gzip(smileBytes)).isLessThan(gzip(jsonBytes));
+    }
+
+    static List<ProductListDto> productPage(int size) {
+        var categoryId = UUID.randomUUID();
+        var page = new ArrayList<ProductListDto>();
+        for (int i = 0; i < size; i++) {
+            var product = new ProductListDto();
+            product.setId(UUID.randomUUID());
+            product.setName("Product " + i);
+            product.setDescription("Description of product " + i);
+            product.setPrice(9.99 + i);
+            product.setCategoryId(categoryId);
+            page.add(product);
+        }
+        return page;
+    }
+
+    static int gzip(byte[] bytes) throws Exception {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.rayhan.spring_store.configs;
+
+import dev.rayhan.spring_store.common.dtos.ProductSortByColumn;
+import dev.rayhan.spring_store.common.dtos.SortDirection;
+import dev.rayhan.spring_store.common.dtos.UserSortByColumn;
+import jakarta.persistence.Entity;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hints of {@link NativeImageConfig} on the JVM, so a DTO or
+ * entity added without its hint fails here instead of at runtime in the
+ * native image.
+ */
+class NativeImageConfigTests {
+    private static final String BASE_PACKAGE = "dev.rayhan.spring_store";
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTests() {
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, NativeImageConfig.class);
+        new NativeImageConfig.StoreRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void everyDtoIsRegisteredForBinding() {
+        var dtos = scan(new RegexPatternTypeFilter(Pattern.compile(Pattern.quote(BASE_PACKAGE) + "\\..*\\.dtos\\..*"))).stream()
+                // enums are bound by name, Lombok builders are never bound
+                .filter(type -> !type.isEnum() && !type.getSimpleName().endsWith("Builder"))
+                .toList();
+
+        assertThat(dtos).isNotEmpty();
+        assertThat(dtos).allSatisfy(dto ->
+                assertThat(RuntimeHintsPredicates.reflection().onType(dto)).as(dto.getName()).accepts(hints));
+    }
+
+    @Test
+    void everyEntityIsRegisteredForReflection() {
+        var entities = scan(new AnnotationTypeFilter(Entity.class));
+
+        assertThat(entities).isNotEmpty();
+        assertThat(entities).allSatisfy(entity -> assertThat(RuntimeHintsPredicates.reflection().onType(entity)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .as(entity.getName())
+                .accepts(hints));
+    }
+
+    @Test
+    void queryParameterEnumsAreBoundByName() {
+        assertThat(List.of(ProductSortByColumn.class, SortDirection.class, UserSortByColumn.class)).allSatisfy(type ->
+                assertThat(RuntimeHintsPredicates.reflection().onType(type).withMemberCategory(MemberCategory.PUBLIC_FIELDS))
+                        .as(type.getName())
+                        .accepts(hints));
+    }
+
+    @Test
+    void datasourceProxyJdkProxiesAreRegistered() {
+        assertThat(List.of(DataSource.class, Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class))
+                .allSatisfy(type -> assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, type))
+                        .as(type.getName())
+                        .accepts(hints));
+    }
+
+    @Test
+    void templatesAreIncluded() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("templates/index.html")).accepts(hints);
+    }
+
+    private static List<Class<?>> scan(TypeFilter filter) {
+        var scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(filter);
+        return scanner.findCandidateComponents(BASE_PACKAGE).stream()
+                .<Class<?>>map(definition -> ClassUtils.resolveClassName(definition.getBeanClassName(), NativeImageConfigTests.class.getClassLoader()))
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package dev.rayhan.spring_store.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The prod pool hands out connections with autocommit off and rolls back
+ * whatever is uncommitted when they come back. A write outside a Spring
+ * transaction is therefore lost without an error; see notes/jdbc-tuning.md.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("prod")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod-settings;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.minimum-idle=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProdDataSourceTests {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS probe (id int)");
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM probe"));
+    }
+
+    @Test
+    void handsOutConnectionsWithAutocommitOff() {
+        assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+        assertThat(((HikariDataSource) dataSource).isAutoCommit()).isFalse();
+    }
+
+    @Test
+    void discardsAWriteOutsideATransaction() {
+        jdbcTemplate.update("INSERT INTO probe (id) VALUES (1)");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM probe", Integer.class)).isZero();
+    }
+
+    @Test
+    void keepsAWriteInsideATransaction() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO probe (id) VALUES (1)"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM probe", Integer.class)).isOne();
+    }
+}